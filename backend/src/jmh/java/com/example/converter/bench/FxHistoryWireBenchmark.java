@@ -0,0 +1,91 @@
+package com.example.converter.bench;
+
+import com.example.converter.dto.exchange.FxHistoryResponse;
+import com.example.converter.dto.exchange.FxPointDTO;
+import com.example.converter.web.FxHistoryBinaryCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (as the history endpoint serves it) against the application/x-fx-history columnar
+ * encoding for a daily close history: encode and decode time per payload.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FxHistoryWireBenchmark {
+
+    @Param({"365", "3650"})
+    private int points;
+
+    private ObjectMapper mapper;
+    private FxHistoryResponse history;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Random random = new Random(42);
+        List<FxPointDTO> list = new ArrayList<>(points);
+        LocalDate day = LocalDate.of(2015, 1, 1);
+        double rate = 1.1;
+        for (int i = 0; i < points; i++) {
+            rate *= 1 + (random.nextGaussian() * 0.004);
+            list.add(new FxPointDTO(day, BigDecimal.valueOf(rate).setScale(4, RoundingMode.HALF_EVEN)));
+            day = day.plusDays(random.nextInt(10) == 0 ? 3 : 1);
+        }
+        history = new FxHistoryResponse("EUR", "USD", list);
+        json = mapper.writeValueAsBytes(history);
+        binary = encodeBinary();
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return mapper.writeValueAsBytes(history);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(points * 4 + 32);
+        FxHistoryBinaryCodec.encode(history, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public FxHistoryResponse decodeJson() throws IOException {
+        return mapper.readValue(json, FxHistoryResponse.class);
+    }
+
+    @Benchmark
+    public FxHistoryResponse decodeBinary() throws IOException {
+        return FxHistoryBinaryCodec.decode(new ByteArrayInputStream(binary));
+    }
+}
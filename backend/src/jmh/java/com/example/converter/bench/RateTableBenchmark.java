@@ -0,0 +1,77 @@
+package com.example.converter.bench;
+
+import com.example.converter.service.cache.CurrencyCodes;
+import com.example.converter.service.cache.RateTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares quote lookups in a base-rate table held as HashMap&lt;String, Double&gt; (the previous
+ * representation) against {@link RateTable}. Each invocation looks up every quote of a ~160
+ * currency table in shuffled order, with quote strings that are not the map's key instances.
+ * Run with {@code -prof gc} to compare allocation as well as time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateTableBenchmark {
+
+    private static final int CURRENCIES = 160;
+
+    private Map<String, Double> map;
+    private RateTable table;
+    private String[] quotes;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        map = new HashMap<>();
+        RateTable.Builder builder = RateTable.builder("USD");
+        String[] codes = new String[CURRENCIES];
+        for (int i = 0; i < CURRENCIES; i++) {
+            String code = CurrencyCodes.unpack(random.nextInt(CurrencyCodes.SPACE));
+            double rate = 0.001 + random.nextDouble() * 1000;
+            map.put(code, rate);
+            builder.put(code, rate);
+            codes[i] = code;
+        }
+        table = builder.build();
+
+        quotes = new String[CURRENCIES];
+        for (int i = 0; i < CURRENCIES; i++) {
+            quotes[i] = new String(codes[random.nextInt(CURRENCIES)].toCharArray());
+        }
+    }
+
+    @Benchmark
+    public void hashMap(Blackhole bh) {
+        for (String quote : quotes) {
+            Double v = map.get(quote);
+            bh.consume(v != null ? v : -1.0);
+        }
+    }
+
+    @Benchmark
+    public void rateTable(Blackhole bh) {
+        for (String quote : quotes) {
+            bh.consume(table.get(quote));
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.converter.bench;
+
+import com.example.converter.service.unit.UnitRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled UnitRegistry against the previous map-scanning implementation
+ * of UnitConversionService.convertUnitValue ({@link Legacy}, trimmed to the categories exercised
+ * here, which only flatters the legacy category scan).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitConversionBenchmark {
+
+    @Param({"km:mi", "lb:kg", "fahrenheit:kelvin", "kwh:btu"})
+    public String pair;
+
+    private String fromUnit;
+    private String toUnit;
+    private double value;
+    private UnitRegistry registry;
+
+    @Setup
+    public void setup() {
+        String[] parts = pair.split(":");
+        fromUnit = parts[0];
+        toUnit = parts[1];
+        value = 123.456;
+        registry = new UnitRegistry();
+    }
+
+    @Benchmark
+    public double legacy() {
+        return Legacy.convertUnitValue(value, fromUnit, toUnit);
+    }
+
+    @Benchmark
+    public double registry() {
+        int from = registry.resolve(fromUnit);
+        int to = registry.resolve(toUnit);
+        return registry.convert(from, to, value);
+    }
+
+    /**
+     * Pre-registry implementation: category scan, lowercase per call, boxed factors.
+     */
+    static final class Legacy {
+        private static final Map<String, Map<String, Double>> CONVERSION_FACTORS = new HashMap<>();
+
+        static {
+            Map<String, Double> length = new HashMap<>();
+            length.put("meter", 1.0);
+            length.put("m", 1.0);
+            length.put("centimeter", 0.01);
+            length.put("cm", 0.01);
+            length.put("millimeter", 0.001);
+            length.put("mm", 0.001);
+            length.put("kilometer", 1000.0);
+            length.put("km", 1000.0);
+            length.put("inch", 0.0254);
+            length.put("in", 0.0254);
+            length.put("foot", 0.3048);
+            length.put("ft", 0.3048);
+            length.put("yard", 0.9144);
+            length.put("yd", 0.9144);
+            length.put("mile", 1609.344);
+            length.put("mi", 1609.344);
+            length.put("nautical_mile", 1852.0);
+            length.put("nmi", 1852.0);
+            CONVERSION_FACTORS.put("length", length);
+
+            Map<String, Double> weight = new HashMap<>();
+            weight.put("kilogram", 1.0);
+            weight.put("kg", 1.0);
+            weight.put("gram", 0.001);
+            weight.put("g", 0.001);
+            weight.put("milligram", 0.000001);
+            weight.put("mg", 0.000001);
+            weight.put("pound", 0.453592);
+            weight.put("lb", 0.453592);
+            weight.put("ounce", 0.0283495);
+            weight.put("oz", 0.0283495);
+            weight.put("ton", 1000.0);
+            weight.put("t", 1000.0);
+            weight.put("stone", 6.35029);
+            weight.put("st", 6.35029);
+            CONVERSION_FACTORS.put("weight", weight);
+
+            Map<String, Double> energy = new HashMap<>();
+            energy.put("joule", 1.0);
+            energy.put("j", 1.0);
+            energy.put("kilojoule", 1000.0);
+            energy.put("kj", 1000.0);
+            energy.put("calorie", 4.184);
+            energy.put("cal", 4.184);
+            energy.put("kilocalorie", 4184.0);
+            energy.put("kcal", 4184.0);
+            energy.put("watt_hour", 3600.0);
+            energy.put("wh", 3600.0);
+            energy.put("kilowatt_hour", 3600000.0);
+            energy.put("kwh", 3600000.0);
+            energy.put("british_thermal_unit", 1055.06);
+            energy.put("btu", 1055.06);
+            CONVERSION_FACTORS.put("energy", energy);
+
+            Map<String, Double> temperature = new HashMap<>();
+            temperature.put("celsius", 1.0);
+            temperature.put("c", 1.0);
+            temperature.put("fahrenheit", 1.0);
+            temperature.put("f", 1.0);
+            temperature.put("kelvin", 1.0);
+            temperature.put("k", 1.0);
+            CONVERSION_FACTORS.put("temperature", temperature);
+        }
+
+        static double convertUnitValue(double value, String fromUnit, String toUnit) {
+            if (isTemperatureUnit(fromUnit) && isTemperatureUnit(toUnit)) {
+                return convertTemperature(value, fromUnit, toUnit);
+            }
+            String category = getUnitCategory(fromUnit);
+            if (category == null) {
+                throw new IllegalArgumentException("Unknown unit: " + fromUnit);
+            }
+            Map<String, Double> conversions = CONVERSION_FACTORS.get(category);
+            if (conversions == null || !conversions.containsKey(fromUnit) || !conversions.containsKey(toUnit)) {
+                throw new IllegalArgumentException("Unsupported conversion from " + fromUnit + " to " + toUnit);
+            }
+            double baseValue = value * conversions.get(fromUnit);
+            return baseValue / conversions.get(toUnit);
+        }
+
+        private static double convertTemperature(double value, String fromUnit, String toUnit) {
+            double celsius;
+            switch (fromUnit.toLowerCase()) {
+                case "celsius", "c" -> celsius = value;
+                case "fahrenheit", "f" -> celsius = (value - 32) * 5.0 / 9.0;
+                case "kelvin", "k" -> celsius = value - 273.15;
+                default -> throw new IllegalArgumentException("Unknown temperature unit: " + fromUnit);
+            }
+            return switch (toUnit.toLowerCase()) {
+                case "celsius", "c" -> celsius;
+                case "fahrenheit", "f" -> celsius * 9.0 / 5.0 + 32;
+                case "kelvin", "k" -> celsius + 273.15;
+                default -> throw new IllegalArgumentException("Unknown temperature unit: " + toUnit);
+            };
+        }
+
+        private static boolean isTemperatureUnit(String unit) {
+            String lowerUnit = unit.toLowerCase();
+            return "celsius".equals(lowerUnit) || "c".equals(lowerUnit) ||
+                   "fahrenheit".equals(lowerUnit) || "f".equals(lowerUnit) ||
+                   "kelvin".equals(lowerUnit) || "k".equals(lowerUnit);
+        }
+
+        private static String getUnitCategory(String unit) {
+            String lowerUnit = unit.toLowerCase();
+            for (Map.Entry<String, Map<String, Double>> entry : CONVERSION_FACTORS.entrySet()) {
+                if (entry.getValue().containsKey(lowerUnit)) {
+                    return entry.getKey();
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.converter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.fx")
+public class FxProperties {
+
+    private BaseRates baseRates = new BaseRates();
+    private Triangulation triangulation = new Triangulation();
+    private Snapshot snapshot = new Snapshot();
+
+    @Data
+    public static class BaseRates {
+        /** Age after which cached base rates count as stale */
+        private long ttlSeconds = 600;
+        /** Refresh entries asynchronously once they reach refreshAheadFraction * ttl, serving the cached copy meanwhile */
+        private boolean refreshAhead = true;
+        private double refreshAheadFraction = 0.8;
+        /** Hard limit: stale entries are never served past this age, even if upstream is down */
+        private long maxStaleSeconds = 3600;
+        private long maximumSize = 1000;
+    }
+
+    @Data
+    public static class Triangulation {
+        /** Derive cross rates from a single pivot snapshot instead of fetching every base currency */
+        private boolean enabled = false;
+        private String pivot = "USD";
+        /** Base currencies that keep using their own upstream snapshot */
+        private List<String> directCurrencies = new ArrayList<>();
+    }
+
+    @Data
+    public static class Snapshot {
+        /** Record one canonical exchange_rate_history point per tracked pair per interval */
+        private boolean enabled = true;
+        private long intervalSeconds = 300;
+        /** Always-tracked pairs as BASE/QUOTE, e.g. USD/EUR */
+        private List<String> pairs = new ArrayList<>();
+        /** Also track pairs users convert, up to maxPairs in total */
+        private boolean trackObserved = true;
+        private int maxPairs = 200;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.converter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.retention")
+public class RetentionProperties {
+
+    /** DROP removes expired partitions; DETACH leaves them as standalone tables for archiving */
+    public enum Mode { DROP, DETACH }
+
+    private boolean enabled = true;
+    private Mode mode = Mode.DROP;
+    /** months of partitions created ahead of the current one */
+    private int premakeMonths = 3;
+    /** full months kept before the current one; 0 or less keeps everything */
+    private int exchangeRateHistoryMonths = 24;
+    private int unitConversionLogMonths = 12;
+    private int currencyConversionAuditMonths = 12;
+}
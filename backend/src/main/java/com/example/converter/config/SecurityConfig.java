@@ -81,11 +81,11 @@ public class SecurityConfig {
                 // Internal service endpoints 
                 .requestMatchers("/internal/**", "/api/internal/**").permitAll()
                 // Exchange history endpoint for internal services
-                .requestMatchers("/api/exchange/history").permitAll()
+                .requestMatchers("/api/exchange/history", "/api/exchange/history/**", "/api/exchange/ohlc").permitAll()
                 // Conversion endpoints - allow both authenticated and anonymous access
                 // JWT filter will still process tokens if present
                 .requestMatchers("/convert/unit", "/api/convert/unit", "/convert/unit/**", "/api/convert/unit/**").permitAll()
-                .requestMatchers("/convert/currency", "/api/convert/currency").permitAll()
+                .requestMatchers("/convert/currency", "/api/convert/currency", "/api/convert/currency/batch", "/api/convert/currency/stream", "/api/convert/currency/reactive").permitAll()
                 // Protected endpoints
                 .requestMatchers("/users/**").authenticated()
                 .requestMatchers("/alerts/**").authenticated()
@@ -0,0 +1,21 @@
+package com.example.converter.config;
+
+import com.example.converter.web.FxHistoryBinaryConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Spring MVC customisation: extra message converters.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // appended after Jackson so "Accept: */*" still gets JSON
+        converters.add(new FxHistoryBinaryConverter());
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.converter.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.write-behind")
+public class WriteBehindProperties {
+
+    public enum Backpressure { DROP, BLOCK, SPILL }
+
+    private boolean enabled = true;
+    private int capacity = 10000;
+    private int batchSize = 500;
+    private long flushIntervalMs = 1000;
+    private Backpressure backpressure = Backpressure.DROP;
+    private long blockTimeoutMs = 200;
+    private String spillDir = System.getProperty("java.io.tmpdir") + "/converter-write-behind";
+    private long shutdownTimeoutMs = 10000;
+}
@@ -1,20 +1,36 @@
 package com.example.converter.controller.conversion;
 
+import com.example.converter.dto.conversion.CurrencyBatchConversionRequest;
+import com.example.converter.dto.conversion.CurrencyBatchConversionResponse;
 import com.example.converter.dto.conversion.CurrencyConversionRequest;
 import com.example.converter.dto.conversion.CurrencyConversionResponse;
 import com.example.converter.service.currency.CurrencyConversionService;
+import com.example.converter.service.stream.StreamFormat;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Spring Boot REST Controller for currency conversion functionality.
- * Endpoint: /api/convert/currency (POST).
+ * Endpoints: /api/convert/currency (POST), /api/convert/currency/batch (POST),
+ * /api/convert/currency/stream (POST, CSV or NDJSON body streamed back row by row),
+ * /api/convert/currency/reactive (POST, non-blocking variant).
  * Input: JSON with amount (double), fromCurrency (string), toCurrency (string).
  * Output: JSON containing convertedAmount (double), toCurrency (string), exchangeRate (double), and predictionData (list of predicted rates).
  * Uses CurrencyConversionService to handle business logic.
@@ -51,4 +67,56 @@ public class CurrencyConversionController {
             return ResponseEntity.internalServerError().build();
         }
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/currency/batch")
+    @Operation(summary = "Convert currencies in batch", description = "Convert a list of (amount, fromCurrency, toCurrency) items against one consistent rate snapshot")
+    public ResponseEntity<CurrencyBatchConversionResponse> convertCurrencyBatch(@Valid @RequestBody CurrencyBatchConversionRequest request, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(currencyConversionService.convertCurrencyBatch(request, authentication));
+
+        } catch (IllegalArgumentException e) {
+            log.error("Batch currency conversion failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Unexpected error during batch currency conversion: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @PostMapping(value = "/currency/stream", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Stream currency conversion", description = "Convert a CSV or NDJSON body of amounts row by row and stream the converted rows back in the same format (chunked)")
+    public void convertCurrencyStream(@RequestParam(required = false) String fromCurrency,
+                                      @RequestParam(required = false) String toCurrency,
+                                      Authentication authentication,
+                                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StreamFormat format = StreamFormat.of(request.getContentType());
+
+        response.setContentType(format.mediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8), 64 * 1024);
+            Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 64 * 1024);
+            currencyConversionService.convertStream(format, in, out, fromCurrency, toCurrency, authentication);
+        } catch (IOException e) {
+            log.warn("Streaming currency conversion aborted: {}", e.getMessage());
+        }
+    }
+
+    @PostMapping("/currency/reactive")
+    @Operation(summary = "Convert currency (non-blocking)", description = "Same contract as /currency, served without holding a request thread while rates are fetched")
+    public Mono<ResponseEntity<CurrencyConversionResponse>> convertCurrencyReactive(@Valid @RequestBody CurrencyConversionRequest request, Authentication authentication) {
+        log.info("Received reactive currency conversion request: {} {} to {}",
+                request.getAmount(), request.getFromCurrency(), request.getToCurrency());
+
+        return currencyConversionService.convertCurrencyReactive(request, authentication)
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.error("Currency conversion failed: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.badRequest().build());
+                })
+                .onErrorResume(e -> {
+                    log.error("Unexpected error during currency conversion: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.internalServerError().build());
+                });
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.converter.controller.conversion;
 
+import com.example.converter.dto.conversion.UnitBatchConversionRequest;
+import com.example.converter.dto.conversion.UnitBatchConversionResponse;
 import com.example.converter.dto.conversion.UnitConversionRequest;
 import com.example.converter.dto.conversion.UnitConversionResponse;
 import com.example.converter.entity.User;
 import com.example.converter.repository.UserRepository;
+import com.example.converter.service.stream.StreamFormat;
 import com.example.converter.service.unit.UnitConversionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,11 +20,19 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 /**
  * Spring Boot REST Controller for unit conversion functionality.
- * Endpoint: /api/convert/unit (POST).
+ * Endpoints: /api/convert/unit (POST), /api/convert/unit/batch (POST),
+ * /api/convert/unit/stream (POST, CSV or NDJSON body streamed back row by row).
  * Input: JSON with value (double), fromUnit (string), toUnit (string).
  * Output: JSON containing convertedValue (double) and toUnit (string).
  * Uses UnitConversionService to handle business logic.
@@ -62,6 +75,24 @@ public class UnitConversionController {
         }
     }
 
+    @PostMapping("/unit/batch")
+    @Operation(summary = "Convert units in batch", description = "Convert a column of values for one unit pair, or a list of mixed unit pairs, in one request")
+    public ResponseEntity<UnitBatchConversionResponse> convertUnitBatch(@Valid @RequestBody UnitBatchConversionRequest request) {
+        try {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            Long userId = getUserIdFromAuthentication(authentication);
+
+            return ResponseEntity.ok(unitConversionService.convertBatch(request, userId));
+
+        } catch (IllegalArgumentException e) {
+            log.error("Batch unit conversion failed: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Unexpected error during batch unit conversion: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @GetMapping("/unit/units")
     @Operation(summary = "Get available units", description = "Get all available units organized by category")
     public ResponseEntity<java.util.Map<String, String[]>> getAvailableUnits() {
@@ -75,6 +106,26 @@ public class UnitConversionController {
         }
     }
 
+    @PostMapping(value = "/unit/stream", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Stream unit conversion", description = "Convert a CSV or NDJSON body row by row and stream the converted rows back in the same format (chunked)")
+    public void convertUnitStream(@RequestParam(required = false) String fromUnit,
+                                  @RequestParam(required = false) String toUnit,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StreamFormat format = StreamFormat.of(request.getContentType());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = getUserIdFromAuthentication(authentication);
+
+        response.setContentType(format.mediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8), 64 * 1024);
+            Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 64 * 1024);
+            unitConversionService.convertStream(format, in, out, fromUnit, toUnit, userId);
+        } catch (IOException e) {
+            log.warn("Streaming unit conversion aborted: {}", e.getMessage());
+        }
+    }
+
     /**
      * Extract user ID from authentication context
      * @param authentication the authentication object
@@ -1,28 +1,39 @@
 package com.example.converter.controller.exchange;
 
 import com.example.converter.dto.exchange.FxHistoryResponse;
-import com.example.converter.dto.exchange.FxPointDTO;
+import com.example.converter.dto.exchange.FxOhlcResponse;
 import com.example.converter.service.exchange.ExchangeHistoryService;
+import com.example.converter.service.exchange.HistoryWatermarks;
+import com.example.converter.service.exchange.RawHistoryService;
+import com.example.converter.service.stream.StreamFormat;
+import com.example.converter.web.FxHistoryBinaryCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.example.converter.security.InternalApiKeyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDate;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/exchange")
@@ -31,14 +42,15 @@ import java.util.stream.Collectors;
 public class ExchangeHistoryController {
 
     private final ExchangeHistoryService service;
+    private final RawHistoryService rawHistoryService;
+    private final HistoryWatermarks historyWatermarks;
     private final InternalApiKeyService internalApiKeyService;
+    private final ObjectMapper objectMapper;
     
-    @Value("${security.apiKey.header:X-API-Key}") 
-    private String apiKeyHeader;
-    
-    @Value("${security.internal.auth.enabled:true}")
-    private boolean internalAuthEnabled;
-
+    /**
+     * Daily close history; JSON by default, compact columnar binary when application/x-fx-history
+     * is the client's preferred type
+     */
     @GetMapping("/history")
     public ResponseEntity<?> history(
         @RequestParam @Pattern(regexp="^[A-Z]{3}$") String base,
@@ -48,55 +60,185 @@ public class ExchangeHistoryController {
         @RequestParam(required=false) @Min(1) @Max(365) Integer limit,
         HttpServletRequest req
     ) {
-        if (internalAuthEnabled) {
-            String authHeader = req.getHeader(apiKeyHeader);
-            
-            if (authHeader == null || authHeader.isBlank()) {
-                log.warn("Missing internal API key header: {}", apiKeyHeader);
-                return ResponseEntity.status(401).body(Map.of("error", "missing_api_key", "message", "Internal API key required"));
-            }
+        Map<String, String> denied = internalApiKeyService.checkRequest(req);
+        if (denied != null) {
+            // errors are JSON whatever was negotiated, so binary clients see them instead of a 406
+            return ResponseEntity.status(401).contentType(MediaType.APPLICATION_JSON).body(denied);
+        }
 
-            String token = authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader;
-            
-            if (!internalApiKeyService.validateInternalApiKey(token)) {
-                String serviceName = internalApiKeyService.getServiceNameFromToken(token);
-                log.warn("Invalid internal API key from service: {}", serviceName != null ? serviceName : "unknown");
-                return ResponseEntity.status(401).body(Map.of("error", "invalid_api_key", "message", "Invalid or expired internal API key"));
-            }
-            
-            String serviceName = internalApiKeyService.getServiceNameFromToken(token);
-            log.debug("Authorized internal API request from service: {}", serviceName);
+        MediaType representation = historyRepresentation(req.getHeader(HttpHeaders.ACCEPT));
+        // ETag/Last-Modified come from the pair watermark, so a revalidation never reads history
+        HistoryWatermarks.Watermark watermark = historyWatermarks.get(base, quote);
+        // the binary and JSON representations need distinct validators
+        String variant = FxHistoryBinaryCodec.MEDIA_TYPE.equals(representation) ? "-b" : "";
+        String etag = "\"" + watermark.tag() + "-" + Integer.toHexString(Objects.hash(from, to, limit)) + variant + "\"";
+        long lastModified = watermark.lastRecordedAt() > 0 ? watermark.lastRecordedAt() : -1;
+        if (notModified(req, etag, watermark.count() > 0, lastModified)) {
+            return ResponseEntity.status(304).eTag(etag).varyBy(HttpHeaders.ACCEPT)
+                .headers(h -> setLastModified(h, lastModified)).build();
         }
 
-        FxHistoryResponse payload = service.getHistory(base, quote, from, to, limit);
+        FxHistoryResponse payload = service.getHistory(base, quote, from, to, limit, watermark.tag());
         if (payload.getHistory().isEmpty()) {
-            return ResponseEntity.status(404).body(Map.of("error","no data"));
+            return ResponseEntity.status(404).contentType(MediaType.APPLICATION_JSON).body(Map.of("error","no data"));
         }
 
-        // ETag = SHA-256(base|quote|count|first|last|hashRates)
-        String first = payload.getHistory().get(0).getDate().toString();
-        String last  = payload.getHistory().get(payload.getHistory().size()-1).getDate().toString();
-        String ratesConcat = payload.getHistory().stream()
-            .map(p -> p.getRate().toPlainString())
-            .collect(Collectors.joining(","));
-        String src = base+"|"+quote+"|"+payload.getHistory().size()+"|"+first+"|"+last+"|"+ratesConcat;
-        String etag = "\""+DigestUtils.md5DigestAsHex(src.getBytes())+"\"";
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .varyBy(HttpHeaders.ACCEPT)
+            .headers(h -> setLastModified(h, lastModified))
+            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(10)).cachePublic())
+            .contentType(representation)
+            .body(payload);
+    }
+
+    /**
+     * Negotiate the history representation from Accept: each candidate takes the quality of the most
+     * specific range that matches it, the higher quality wins and JSON wins ties (and unparseable headers).
+     * Spring's produces matching ignores q-values, so this is done here rather than with two mappings.
+     */
+    private static MediaType historyRepresentation(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        double json = quality(accepted, MediaType.APPLICATION_JSON);
+        double binary = quality(accepted, FxHistoryBinaryCodec.MEDIA_TYPE);
+        return binary > json ? FxHistoryBinaryCodec.MEDIA_TYPE : MediaType.APPLICATION_JSON;
+    }
 
+    private static double quality(List<MediaType> accepted, MediaType type) {
+        MediaType match = null;
+        for (MediaType range : accepted) {
+            if (range.includes(type) && (match == null || specificity(range) > specificity(match))) {
+                match = range;
+            }
+        }
+        return match != null ? match.getQualityValue() : 0.0;
+    }
+
+    private static int specificity(MediaType range) {
+        return range.isWildcardType() ? 0 : range.isWildcardSubtype() ? 1 : 2;
+    }
+
+    private static void setLastModified(HttpHeaders headers, long lastModified) {
+        if (lastModified > 0) {
+            headers.setLastModified(lastModified);
+        }
+    }
+
+    /**
+     * Conditional request check: If-None-Match wins when present, otherwise If-Modified-Since
+     * (second precision, as in the HTTP date). "*" only matches a pair that has history, so a pair
+     * without any still gets its 404.
+     */
+    private static boolean notModified(HttpServletRequest req, String etag, boolean exists, long lastModified) {
         String ifNoneMatch = req.getHeader("If-None-Match");
-        if (etag.equals(ifNoneMatch)) {
-            return ResponseEntity.status(304).eTag(etag).build();
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String t = tag.trim();
+                if ((exists && t.equals("*")) || t.equals(etag) || t.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (lastModified < 0) {
+            return false;
         }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = req.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
 
-        ZonedDateTime lastModified = payload.getHistory().stream()
-            .map(FxPointDTO::getDate)
-            .max(LocalDate::compareTo)
-            .map(d -> d.atStartOfDay(ZoneOffset.UTC))
-            .orElse(ZonedDateTime.now(ZoneOffset.UTC));
+    @GetMapping("/ohlc")
+    public ResponseEntity<?> ohlc(
+        @RequestParam @Pattern(regexp="^[A-Z]{3}$") String base,
+        @RequestParam @Pattern(regexp="^[A-Z]{3}$") String quote,
+        @RequestParam(defaultValue="day") @Pattern(regexp="^(hour|day)$") String interval,
+        @RequestParam(required=false) @DateTimeFormat(iso=DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required=false) @DateTimeFormat(iso=DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(defaultValue="365") @Min(1) @Max(5000) Integer limit,
+        HttpServletRequest req
+    ) {
+        Map<String, String> denied = internalApiKeyService.checkRequest(req);
+        if (denied != null) {
+            return ResponseEntity.status(401).body(denied);
+        }
 
+        FxOhlcResponse payload = service.getOhlc(base, quote, "hour".equals(interval), from, to, limit);
+        if (payload.getBuckets().isEmpty()) {
+            return ResponseEntity.status(404).body(Map.of("error","no data"));
+        }
         return ResponseEntity.ok()
-            .eTag(etag)
-            .lastModified(lastModified.toInstant().toEpochMilli())
-            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(10)).cachePublic())
+            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic())
             .body(payload);
     }
-}
\ No newline at end of file
+
+    /**
+     * Raw history at full granularity, oldest first, keyset-paginated on (recordedAt, id).
+     * Pass the returned nextCursor to get the following page.
+     */
+    @GetMapping("/history/raw")
+    public ResponseEntity<?> rawHistory(
+        @RequestParam @Pattern(regexp="^[A-Z]{3}$") String base,
+        @RequestParam @Pattern(regexp="^[A-Z]{3}$") String quote,
+        @RequestParam(required=false) @DateTimeFormat(iso=DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required=false) @DateTimeFormat(iso=DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required=false) String cursor,
+        @RequestParam(defaultValue="1000") @Min(1) @Max(5000) Integer limit,
+        HttpServletRequest req
+    ) {
+        Map<String, String> denied = internalApiKeyService.checkRequest(req);
+        if (denied != null) {
+            return ResponseEntity.status(401).body(denied);
+        }
+        try {
+            return ResponseEntity.ok(rawHistoryService.getPage(base, quote, from, to, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stream the whole range as CSV or NDJSON, row by row (chunked), oldest first
+     */
+    @GetMapping("/history/export")
+    public void exportHistory(
+        @RequestParam @Pattern(regexp="^[A-Z]{3}$") String base,
+        @RequestParam @Pattern(regexp="^[A-Z]{3}$") String quote,
+        @RequestParam(required=false) @DateTimeFormat(iso=DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required=false) @DateTimeFormat(iso=DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(defaultValue="ndjson") @Pattern(regexp="^(csv|ndjson)$") String format,
+        HttpServletRequest req, HttpServletResponse response
+    ) throws IOException {
+        Map<String, String> denied = internalApiKeyService.checkRequest(req);
+        if (denied != null) {
+            response.setStatus(401);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), denied);
+            return;
+        }
+
+        StreamFormat streamFormat = "csv".equals(format) ? StreamFormat.CSV : StreamFormat.NDJSON;
+        response.setContentType(streamFormat.mediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + base + "-" + quote + "-history." + format + "\"");
+        try {
+            Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 64 * 1024);
+            rawHistoryService.export(base, quote, from, to, streamFormat, out);
+        } catch (IOException e) {
+            log.warn("Exchange history export for {}/{} aborted: {}", base, quote, e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.converter.controller.internal;
 
 import com.example.converter.service.cache.FxRateCacheService;
+import com.example.converter.service.cache.RateTable;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
@@ -21,7 +22,7 @@ public class FxCacheController {
 
     @PostMapping("/cache/refresh/{baseCurrency}")
     public ResponseEntity<Map<String, Object>> refresh(@PathVariable String baseCurrency) {
-        Map<String, Double> rates = fxRateCacheService.refreshBaseRates(baseCurrency);
+        RateTable rates = fxRateCacheService.refreshBaseRates(baseCurrency);
         if (rates == null || rates.isEmpty()) {
             return ResponseEntity.status(502).body(Map.of(
                     "status", "error",
@@ -0,0 +1,55 @@
+package com.example.converter.controller.internal;
+
+import com.example.converter.security.InternalApiKeyService;
+import com.example.converter.service.news.SentimentAggregates;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+@RestController
+@RequestMapping("/api/internal/news")
+@RequiredArgsConstructor
+@Tag(name = "Internal News Sentiment", description = "Rolling news sentiment aggregates for internal services")
+public class NewsSentimentController {
+
+    private static final Pattern CURRENCY = Pattern.compile("[A-Za-z]{3}");
+
+    private final SentimentAggregates sentimentAggregates;
+    private final InternalApiKeyService internalApiKeyService;
+
+    /**
+     * Rolling sentiment for one currency (currency=USD) or one pair (base=USD&quote=VND), served from memory
+     */
+    @GetMapping("/sentiment")
+    @Operation(summary = "Get 1h/24h/7d news sentiment aggregates for a currency or currency pair")
+    public ResponseEntity<?> getSentiment(
+        @RequestParam(required = false) String currency,
+        @RequestParam(required = false) String base,
+        @RequestParam(required = false) String quote,
+        HttpServletRequest req
+    ) {
+        Map<String, String> denied = internalApiKeyService.checkRequest(req);
+        if (denied != null) {
+            return ResponseEntity.status(401).body(denied);
+        }
+        if (currency != null && !currency.isBlank()) {
+            if (!CURRENCY.matcher(currency.trim()).matches()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "currency must be a 3-letter code"));
+            }
+            return ResponseEntity.ok(sentimentAggregates.currency(currency));
+        }
+        if (base == null || quote == null || !CURRENCY.matcher(base.trim()).matches() || !CURRENCY.matcher(quote.trim()).matches()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "pass currency, or base and quote, as 3-letter codes"));
+        }
+        return ResponseEntity.ok(sentimentAggregates.pair(base, quote));
+    }
+}
@@ -1,22 +1,34 @@
 package com.example.converter.controller.news;
 
-import com.example.converter.dto.news.NewsArticleDTO;
+import com.example.converter.dto.news.NewsFeedPageResponse;
+import com.example.converter.dto.news.NewsRefreshJobDTO;
 import com.example.converter.dto.user.UserAlertRequest;
 import com.example.converter.dto.user.UserAlertResponse;
+import com.example.converter.service.news.NewsFeedService;
+import com.example.converter.service.news.NewsRefreshJobs;
+import com.example.converter.service.news.NewsSearchIndex;
 import com.example.converter.service.news.NewsService;
+import com.example.converter.service.news.RefreshJob;
 import com.example.converter.service.user.UserAlertService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api")
@@ -25,16 +37,66 @@ import java.util.List;
 @Tag(name = "News and Alerts", description = "APIs for news and alert configurations")
 public class NewsController {
 
+    private static final Pattern CURRENCY = Pattern.compile("[A-Za-z]{3}");
+    private static final int MAX_FEED_LIMIT = NewsFeedService.MAX_LIMIT;
+
     private final NewsService newsService;
+    private final NewsFeedService newsFeedService;
+    private final NewsSearchIndex newsSearchIndex;
+    private final NewsRefreshJobs newsRefreshJobs;
     private final UserAlertService userAlertService;
 
     @GetMapping("/news")
     @Operation(summary = "Get news articles with sentiment analysis")
-    public ResponseEntity<List<NewsArticleDTO>> getNews(@RequestParam(defaultValue = "0") int page,
-                                                        @RequestParam(defaultValue = "20") int size) {
+    public ResponseEntity<?> getNews(@RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(defaultValue = "20") int size) {
+        if (size < 1 || size > MAX_FEED_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "size must be between 1 and " + MAX_FEED_LIMIT));
+        }
+        if (page < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "page must not be negative"));
+        }
         return ResponseEntity.ok(newsService.getAllNews(page, size));
     }
 
+    @GetMapping("/news/feed")
+    @Operation(summary = "Get news articles newest first, keyset-paginated; pass nextCursor to get the next page")
+    public ResponseEntity<?> getNewsFeed(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int limit,
+                                         @RequestParam(defaultValue = "false") boolean includeContent) {
+        if (limit < 1 || limit > MAX_FEED_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_FEED_LIMIT));
+        }
+        try {
+            NewsFeedPageResponse page = cursor == null || cursor.isBlank()
+                    ? newsFeedService.firstPage(limit, includeContent)
+                    : newsFeedService.page(cursor, limit, includeContent);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/news/search")
+    @Operation(summary = "Search news by keywords in title/summary, currency, category, sentiment and date range, newest first")
+    public ResponseEntity<?> searchNews(@RequestParam(required = false) String q,
+                                        @RequestParam(required = false) String currency,
+                                        @RequestParam(required = false) String category,
+                                        @RequestParam(required = false) String sentiment,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                        @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_FEED_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_FEED_LIMIT));
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must not be after to"));
+        }
+        NewsSearchIndex.SearchResult result = newsSearchIndex.search(q, currency, category, sentiment,
+                from != null ? from.atStartOfDay() : null, to != null ? to.plusDays(1).atStartOfDay() : null, limit);
+        return ResponseEntity.ok(result);
+    }
+
     @PostMapping("/alerts")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Create new alert configuration")
@@ -67,16 +129,38 @@ public class NewsController {
     }
 
     @PostMapping("/news/refresh")
-    @Operation(summary = "Trigger news fetch and analysis now")
-    public ResponseEntity<Void> refreshNewsNow() {
-        newsService.fetchAndAnalyzeNews();
-        return ResponseEntity.accepted().build();
+    @Operation(summary = "Queue a news fetch and analysis; poll the returned job for progress")
+    public ResponseEntity<?> refreshNewsNow() {
+        return submitRefresh(null, null);
     }
 
     @PostMapping("/news/refresh/pair")
-    @Operation(summary = "Trigger news fetch for specific currency pair")
-    public ResponseEntity<Void> refreshNewsForPair(@RequestParam String base, @RequestParam String quote) {
-        newsService.fetchAndAnalyzeNewsForPair(base, quote);
-        return ResponseEntity.accepted().build();
+    @Operation(summary = "Queue a news fetch for specific currency pair; poll the returned job for progress")
+    public ResponseEntity<?> refreshNewsForPair(@RequestParam String base, @RequestParam String quote) {
+        if (!CURRENCY.matcher(base.trim()).matches() || !CURRENCY.matcher(quote.trim()).matches()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "base and quote must be 3-letter currency codes"));
+        }
+        return submitRefresh(base, quote);
+    }
+
+    @GetMapping("/news/refresh/{jobId}")
+    @Operation(summary = "Get status and progress of a news refresh job")
+    public ResponseEntity<NewsRefreshJobDTO> getRefreshJob(@PathVariable String jobId) {
+        return newsRefreshJobs.get(jobId)
+                .map(job -> ResponseEntity.ok(NewsRefreshJobDTO.from(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<?> submitRefresh(String base, String quote) {
+        try {
+            RefreshJob job = newsRefreshJobs.submit(base, quote);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/news/refresh/" + job.id()))
+                    .body(NewsRefreshJobDTO.from(job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("error", "Too many news refresh jobs queued, try again later"));
+        }
     }
 }
@@ -0,0 +1,23 @@
+package com.example.converter.dto.conversion;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for batch currency conversion request.
+ * Fields: items (list of (amount, fromCurrency, toCurrency) triples, any mix of pairs).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrencyBatchConversionRequest {
+
+    @NotEmpty(message = "Items are required")
+    @Valid
+    private List<CurrencyConversionRequest> items;
+}
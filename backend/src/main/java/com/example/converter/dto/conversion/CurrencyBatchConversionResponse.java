@@ -0,0 +1,25 @@
+package com.example.converter.dto.conversion;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO for batch currency conversion response in columnar form, aligned with the request items.
+ * Fields: count (int), convertedAmounts (double[]), exchangeRates (double[]),
+ * rateSnapshotAt (fetch time of the oldest rate table used, null if only identity/fallback rates were used),
+ * rateStale (any rate used was older than the cache ttl).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrencyBatchConversionResponse {
+
+    private int count;
+    private double[] convertedAmounts;
+    private double[] exchangeRates;
+    private Instant rateSnapshotAt;
+    private Boolean rateStale;
+}
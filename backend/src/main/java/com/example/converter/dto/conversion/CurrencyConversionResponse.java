@@ -9,7 +9,8 @@ import java.util.Map;
 
 /**
  * DTO for currency conversion response.
- * Fields: convertedAmount (double), toCurrency (string), exchangeRate (double), predictionData (List<Map<String,Object>>).
+ * Fields: convertedAmount (double), toCurrency (string), exchangeRate (double), predictionData (List<Map<String,Object>>),
+ * rateAgeSeconds (seconds since the rate was fetched upstream, null for identity/fallback rates), rateStale (older than the cache ttl).
  */
 @Data
 @NoArgsConstructor
@@ -20,4 +21,6 @@ public class CurrencyConversionResponse {
     private String toCurrency;
     private Double exchangeRate;
     private List<Map<String, Object>> predictionData;
+    private Long rateAgeSeconds;
+    private Boolean rateStale;
 }
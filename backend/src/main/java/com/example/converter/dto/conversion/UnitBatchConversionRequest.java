@@ -0,0 +1,30 @@
+package com.example.converter.dto.conversion;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for batch unit conversion request.
+ * Either one pair (fromUnit, toUnit) with a column of values, or a list of mixed (value, fromUnit, toUnit) items.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnitBatchConversionRequest {
+
+    @Size(min = 1, max = 50, message = "From unit must be between 1 and 50 characters")
+    private String fromUnit;
+
+    @Size(min = 1, max = 50, message = "To unit must be between 1 and 50 characters")
+    private String toUnit;
+
+    private double[] values;
+
+    @Valid
+    private List<UnitConversionRequest> items;
+}
@@ -0,0 +1,21 @@
+package com.example.converter.dto.conversion;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for batch unit conversion response in columnar form.
+ * Fields: count (int), toUnit (string, single-pair batches), convertedValues (double[]),
+ * toUnits (string[], mixed batches only, aligned with convertedValues).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnitBatchConversionResponse {
+
+    private int count;
+    private String toUnit;
+    private double[] convertedValues;
+    private String[] toUnits;
+}
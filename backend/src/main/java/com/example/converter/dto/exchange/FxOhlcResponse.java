@@ -0,0 +1,19 @@
+package com.example.converter.dto.exchange;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FxOhlcResponse {
+    private String base;
+    private String quote;
+    private String interval;
+    private List<FxOhlcDTO> buckets;
+}
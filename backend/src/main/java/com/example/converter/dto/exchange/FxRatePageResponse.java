@@ -0,0 +1,20 @@
+package com.example.converter.dto.exchange;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FxRatePageResponse {
+    private String base;
+    private String quote;
+    private List<FxRatePointDTO> items;
+    /** opaque cursor for the next page, null on the last page */
+    private String nextCursor;
+}
@@ -0,0 +1,19 @@
+package com.example.converter.dto.exchange;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FxRatePointDTO {
+    private long id;
+    private LocalDateTime recordedAt;
+    private BigDecimal rate;
+}
@@ -1,6 +1,7 @@
 package com.example.converter.dto.news;
 
 import com.example.converter.entity.NewsArticle;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,6 +20,9 @@ public class NewsArticleDTO {
     private String sentimentLabel;
     private Double sentimentScore;
     private LocalDateTime publishedAt;
+    /** only filled when the caller asks for it; omitted from JSON otherwise */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String content;
 
     public static NewsArticleDTO fromEntity(NewsArticle article) {
         return new NewsArticleDTO(
@@ -29,7 +33,8 @@ public class NewsArticleDTO {
                 article.getCategory(),
                 article.getSentimentLabel(),
                 article.getSentimentScore(),
-                article.getPublishedAt()
+                article.getPublishedAt(),
+                article.getContent()
         );
     }
 }
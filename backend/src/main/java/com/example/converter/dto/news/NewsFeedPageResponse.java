@@ -0,0 +1,18 @@
+package com.example.converter.dto.news;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class NewsFeedPageResponse {
+    private List<NewsArticleDTO> items;
+    /** opaque cursor for the next (older) page, null on the last page */
+    private String nextCursor;
+}
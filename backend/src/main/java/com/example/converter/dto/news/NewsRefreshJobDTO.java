@@ -0,0 +1,49 @@
+package com.example.converter.dto.news;
+
+import com.example.converter.service.news.IngestStats;
+import com.example.converter.service.news.RefreshJob;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Status of a news refresh job. queuedMs is the wait before a worker picked the job up,
+ * runMs the time spent running so far (or in total once finished).
+ */
+public record NewsRefreshJobDTO(
+        String id,
+        String scope,
+        String status,
+        int fetched,
+        int duplicates,
+        int scored,
+        int stored,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        Long queuedMs,
+        Long runMs,
+        String error
+) {
+    public static NewsRefreshJobDTO from(RefreshJob job) {
+        IngestStats stats = job.stats();
+        Instant started = job.startedAt();
+        Instant finished = job.finishedAt();
+        Instant now = Instant.now();
+        return new NewsRefreshJobDTO(
+                job.id(),
+                job.key(),
+                job.status().name(),
+                stats.fetched(),
+                stats.duplicates(),
+                stats.scored(),
+                stats.stored(),
+                job.submittedAt(),
+                started,
+                finished,
+                Duration.between(job.submittedAt(), started != null ? started : now).toMillis(),
+                started != null ? Duration.between(started, finished != null ? finished : now).toMillis() : null,
+                job.error()
+        );
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.converter.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * CurrencyConversionAudit entity representing the currency_conversion_audit table.
+ * Maps to the currency_conversion_audit table with fields: id, userId, fromCurrency, toCurrency, amount, rate, itemCount, channel, convertedAt.
+ * One row per conversion request (per distinct pair for batch and stream requests, with the summed amount and item count).
+ * Written only through the ConversionLogWriter write-behind queue.
+ */
+@Entity
+@Table(name = "currency_conversion_audit")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurrencyConversionAudit {
+
+    public static final String SINGLE = "single";
+    public static final String REACTIVE = "reactive";
+    public static final String BATCH = "batch";
+    public static final String STREAM = "stream";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "from_currency", length = 3, nullable = false)
+    private String fromCurrency;
+
+    @Column(name = "to_currency", length = 3, nullable = false)
+    private String toCurrency;
+
+    @Column(name = "amount", nullable = false)
+    private double amount;
+
+    @Column(name = "rate", nullable = false)
+    private double rate;
+
+    @Column(name = "item_count", nullable = false)
+    private int itemCount = 1;
+
+    @Column(name = "channel", length = 16, nullable = false)
+    private String channel;
+
+    @Column(name = "converted_at", nullable = false)
+    private LocalDateTime convertedAt;
+}
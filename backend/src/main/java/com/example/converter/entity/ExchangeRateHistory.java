@@ -46,5 +46,12 @@ public class ExchangeRateHistory {
     @PrePersist
     protected void onCreate() {
         recordedAt = LocalDateTime.now();
+        // stored upper-case so lookups can use plain equality on idx_erh_pair_time
+        if (baseCurrency != null) {
+            baseCurrency = baseCurrency.trim().toUpperCase();
+        }
+        if (targetCurrency != null) {
+            targetCurrency = targetCurrency.trim().toUpperCase();
+        }
     }
 } 
\ No newline at end of file
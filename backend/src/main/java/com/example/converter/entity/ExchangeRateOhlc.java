@@ -0,0 +1,62 @@
+package com.example.converter.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ExchangeRateOhlc entity representing the exchange_rate_ohlc table.
+ * One open/high/low/close bucket per currency pair and granularity ('H' hourly, 'D' daily), with the number of samples.
+ * Rows are written by ExchangeRateRollups (JDBC upserts); JPA is used for reads only.
+ */
+@Entity
+@Table(name = "exchange_rate_ohlc")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExchangeRateOhlc {
+
+    public static final String HOURLY = "H";
+    public static final String DAILY = "D";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "base_currency", length = 3, nullable = false)
+    private String baseCurrency;
+
+    @Column(name = "target_currency", length = 3, nullable = false)
+    private String targetCurrency;
+
+    @Column(name = "granularity", length = 1, nullable = false)
+    private String granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "open_rate", precision = 10, scale = 4, nullable = false)
+    private BigDecimal openRate;
+
+    @Column(name = "high_rate", precision = 10, scale = 4, nullable = false)
+    private BigDecimal highRate;
+
+    @Column(name = "low_rate", precision = 10, scale = 4, nullable = false)
+    private BigDecimal lowRate;
+
+    @Column(name = "close_rate", precision = 10, scale = 4, nullable = false)
+    private BigDecimal closeRate;
+
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount;
+
+    @Column(name = "open_at", nullable = false)
+    private LocalDateTime openAt;
+
+    @Column(name = "close_at", nullable = false)
+    private LocalDateTime closeAt;
+}
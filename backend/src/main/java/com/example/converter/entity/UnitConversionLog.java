@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 
 /**
  * UnitConversionLog entity representing the unit_conversion_log table.
- * Maps to the unit_conversion_log table with fields: id, userId, fromUnit, toUnit, inputValue, outputValue, convertedAt.
+ * Maps to the unit_conversion_log table with fields: id, userId, fromUnit, toUnit, inputValue, outputValue, itemCount, convertedAt.
+ * Batch conversions store one row per unit pair with the mean input/output values and the number of items.
  * Has Many-to-One relationship with User Entity through userId.
  */
 @Entity
@@ -40,6 +41,9 @@ public class UnitConversionLog {
     @Column(name = "output_value", precision = 18, scale = 8, nullable = false)
     private BigDecimal outputValue;
 
+    @Column(name = "item_count", nullable = false)
+    private Integer itemCount = 1;
+
     @CreationTimestamp
     @Column(name = "converted_at", nullable = false, updatable = false)
     private LocalDateTime convertedAt;
@@ -1,9 +1,100 @@
 package com.example.converter.maintenance;
 
+import com.example.converter.config.RetentionProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partition maintenance for the monthly partitioned log tables (see V13__partition_conversion_logs.sql
+ * and V14__currency_conversion_audit.sql).
+ * Keeps partitions created app.retention.premake-months ahead so inserts never miss one, and removes
+ * partitions that fall entirely outside the retention window, which is a catalog operation rather
+ * than a DELETE scan.
+ */
 @Component
+@RequiredArgsConstructor
+@Slf4j
 public class RetentionTasks {
-  @Scheduled(cron = "0 0 3 * * *") public void noop() { /* add Flyway-based purge if needed */ }
+  private static final String EXCHANGE_RATE_HISTORY = "exchange_rate_history";
+  private static final String UNIT_CONVERSION_LOG = "unit_conversion_log";
+  private static final String CURRENCY_CONVERSION_AUDIT = "currency_conversion_audit";
+  private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final RetentionProperties props;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onStartup() {
+    ensurePartitions();
+  }
+
+  @Scheduled(cron = "0 0 3 * * *")
+  public void run() {
+    ensurePartitions();
+    if (!props.isEnabled()) {
+      return;
+    }
+    purge(EXCHANGE_RATE_HISTORY, props.getExchangeRateHistoryMonths());
+    purge(UNIT_CONVERSION_LOG, props.getUnitConversionLogMonths());
+    purge(CURRENCY_CONVERSION_AUDIT, props.getCurrencyConversionAuditMonths());
+  }
+
+  private void ensurePartitions() {
+    LocalDate month = YearMonth.now().atDay(1);
+    int months = Math.max(0, props.getPremakeMonths()) + 1;
+    for (String table : List.of(EXCHANGE_RATE_HISTORY, UNIT_CONVERSION_LOG, CURRENCY_CONVERSION_AUDIT)) {
+      try {
+        Integer created = jdbcTemplate.queryForObject(
+            "SELECT ensure_monthly_partitions(?, ?, ?)", Integer.class, table, month, months);
+        if (created != null && created > 0) {
+          log.info("Created {} partition(s) for {}", created, table);
+        }
+      } catch (Exception e) {
+        log.error("Failed to create partitions for {}: {}", table, e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Drop or detach every partition whose month ends on or before the cutoff
+   * @param retentionMonths full months kept before the current one; 0 or less keeps everything
+   */
+  private void purge(String table, int retentionMonths) {
+    if (retentionMonths <= 0) {
+      return;
+    }
+    YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+    Pattern partitionName = Pattern.compile(Pattern.quote(table) + "_p(\\d{6})");
+    List<String> partitions = jdbcTemplate.queryForList(
+        "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+            + "WHERE i.inhparent = to_regclass(?) ORDER BY c.relname", String.class, table);
+    for (String partition : partitions) {
+      Matcher m = partitionName.matcher(partition);
+      if (!m.matches() || !YearMonth.parse(m.group(1), SUFFIX).isBefore(cutoff)) {
+        continue;
+      }
+      try {
+        if (props.getMode() == RetentionProperties.Mode.DETACH) {
+          jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+        } else {
+          jdbcTemplate.execute("DROP TABLE " + partition);
+        }
+        log.info("Retention: {} partition {} of {}", props.getMode(), partition, table);
+      } catch (Exception e) {
+        log.error("Retention failed for partition {}: {}", partition, e.getMessage());
+      }
+    }
+  }
 }
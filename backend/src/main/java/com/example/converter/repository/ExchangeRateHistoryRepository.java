@@ -2,11 +2,8 @@ package com.example.converter.repository;
 
 import com.example.converter.entity.ExchangeRateHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -45,21 +42,4 @@ public interface ExchangeRateHistoryRepository extends JpaRepository<ExchangeRat
      * @return List of exchange rates
      */
     List<ExchangeRateHistory> findByBaseCurrencyOrderByRecordedAtDesc(String baseCurrency);
-
-    /**
-     * Find history for predict service with date range filtering
-     */
-    @Query("""
-      select h from ExchangeRateHistory h
-      where upper(h.baseCurrency)=upper(:base) and upper(h.targetCurrency)=upper(:quote)
-        and (:from is null or cast(h.recordedAt as date) >= :from)
-        and (:to is null or cast(h.recordedAt as date) <= :to)
-      order by h.recordedAt asc
-    """)
-    List<ExchangeRateHistory> findHistoryForPredict(
-        @Param("base") String base,
-        @Param("quote") String quote,
-        @Param("from") LocalDate from,
-        @Param("to") LocalDate to
-    );
-} 
\ No newline at end of file
+}
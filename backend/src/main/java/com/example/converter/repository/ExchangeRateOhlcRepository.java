@@ -0,0 +1,37 @@
+package com.example.converter.repository;
+
+import com.example.converter.entity.ExchangeRateOhlc;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Spring Data JPA Repository for ExchangeRateOhlc Entity (read side of the exchange_rate_ohlc rollups).
+ */
+@Repository
+public interface ExchangeRateOhlcRepository extends JpaRepository<ExchangeRateOhlc, Long> {
+
+    /**
+     * Latest buckets of a pair in [from, to), newest first; served by the uk_ohlc_bucket index
+     * @param page limits the number of buckets
+     */
+    @Query("""
+      select o from ExchangeRateOhlc o
+      where o.baseCurrency = :base and o.targetCurrency = :quote and o.granularity = :granularity
+        and o.bucketStart >= :from and o.bucketStart < :to
+      order by o.bucketStart desc
+    """)
+    List<ExchangeRateOhlc> findLatestBuckets(
+        @Param("base") String base,
+        @Param("quote") String quote,
+        @Param("granularity") String granularity,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        Pageable page
+    );
+}
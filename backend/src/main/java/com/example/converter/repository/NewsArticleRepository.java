@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -49,4 +50,12 @@ public interface NewsArticleRepository extends JpaRepository<NewsArticle, Long>
      * @return true if article exists, false otherwise
      */
     boolean existsByUrl(String url);
+
+    /**
+     * Bulk variant of {@link #existsByUrl(String)}
+     * @param urls the URLs to check
+     * @return the subset of urls already stored
+     */
+    @Query("SELECT n.url FROM NewsArticle n WHERE n.url IN ?1")
+    List<String> findExistingUrls(Collection<String> urls);
 }
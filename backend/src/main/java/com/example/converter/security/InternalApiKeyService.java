@@ -1,8 +1,10 @@
 package com.example.converter.security;
 
 import com.example.converter.security.jwt.JwtIssuerService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -22,6 +24,12 @@ public class InternalApiKeyService {
 
     private final JwtIssuerService issuer;
 
+    @Value("${security.apiKey.header:X-API-Key}")
+    private String apiKeyHeader;
+
+    @Value("${security.internal.auth.enabled:true}")
+    private boolean internalAuthEnabled;
+
     /**
      * Generate a signed internal API key for a specific service
      * @param serviceName Name of the service requesting the token
@@ -72,6 +80,31 @@ public class InternalApiKeyService {
         }
     }
 
+    /**
+     * Check the internal API key header of a request when internal auth is enabled
+     * @param req incoming request
+     * @return the error body to send with a 401, or null if the request may proceed
+     */
+    public Map<String, String> checkRequest(HttpServletRequest req) {
+        if (!internalAuthEnabled) {
+            return null;
+        }
+        String authHeader = req.getHeader(apiKeyHeader);
+        if (authHeader == null || authHeader.isBlank()) {
+            log.warn("Missing internal API key header: {}", apiKeyHeader);
+            return Map.of("error", "missing_api_key", "message", "Internal API key required");
+        }
+
+        String token = authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader;
+        if (!validateInternalApiKey(token)) {
+            String serviceName = getServiceNameFromToken(token);
+            log.warn("Invalid internal API key from service: {}", serviceName != null ? serviceName : "unknown");
+            return Map.of("error", "invalid_api_key", "message", "Invalid or expired internal API key");
+        }
+        log.debug("Authorized internal API request from service: {}", getServiceNameFromToken(token));
+        return null;
+    }
+
     /**
      * Extract service name from a validated internal API key
      * @param token JWT token to extract service name from
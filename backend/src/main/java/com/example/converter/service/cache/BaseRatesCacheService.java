@@ -1,45 +1,218 @@
 package com.example.converter.service.cache;
 
+import com.example.converter.config.FxProperties;
 import com.example.converter.service.external.FxApiClient;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Isolated cache facade for base FX rates. Keeping @Cacheable here avoids
+ * Isolated cache facade for base FX rates, backed by a Caffeine AsyncCache of rate tables.
+ * Entries are kept for app.fx.base-rates.max-stale-seconds and judged by age on read:
+ * <ul>
+ *   <li>younger than refresh-ahead-fraction * ttl: served as is;</li>
+ *   <li>older: still served, and one asynchronous refresh is started (refresh-ahead,
+ *       and stale-while-revalidate once past ttl);</li>
+ *   <li>older than max-stale, or absent: loaded, and callers wait for the load.</li>
+ * </ul>
+ * Upstream fetches are non-blocking ({@link FxApiClient#fetchBaseRatesAsync}). A miss stores the
+ * in-flight future in the cache, so concurrent callers share one fetch; refreshes are deduplicated
+ * separately and only replace the entry on success, so stale rates keep being served until
+ * max-stale when upstream fails. The blocking accessors simply wait on the same futures.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class BaseRatesCacheService {
 
     private final FxApiClient fxApiClient;
+    private final FxProperties.BaseRates props;
+    private final AsyncCache<String, RateTable> cache;
+    private final Map<String, CompletableFuture<RateTable>> refreshing = new ConcurrentHashMap<>();
+    private final Counter upstreamLoads;
+    private final Counter coalescedLoads;
+    private final Counter refreshesAhead;
+    private final Counter staleServed;
+    private final Counter upstreamFailures;
 
-    @Cacheable(
-            value = "baseRates",
-            key = "#baseCurrency?.trim().toUpperCase()",
-            unless = "#result == null || #result.isEmpty()",
-            cacheManager = "cacheManager",
-            condition = "#baseCurrency != null && !#baseCurrency.isEmpty()"
-    )
-    public Map<String, Double> getBaseRates(String baseCurrency){
-        log.info("Cache MISS - Fetching base rates from API for currency: {}", baseCurrency);
-        return fxApiClient.fetchBaseRates(baseCurrency);
-    }
-
-    @CachePut (
-            value = "baseRates",
-            key = "#baseCurrency?.trim().toUpperCase()",
-            unless = "#result == null || #result.isEmpty()",
-            cacheManager = "cacheManager",
-            condition = "#baseCurrency != null && !#baseCurrency.isEmpty()"
-    )
-    public Map<String, Double> refreshBaseRates(String baseCurrency) {
-        log.info("Refreshing base rates for currency: {}", baseCurrency);
-        return fxApiClient.fetchBaseRates(baseCurrency);
+    public BaseRatesCacheService(FxApiClient fxApiClient,
+                                 FxProperties fxProperties,
+                                 MeterRegistry meterRegistry) {
+        this.fxApiClient = fxApiClient;
+        this.props = fxProperties.getBaseRates();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(Math.max(props.getMaxStaleSeconds(), props.getTtlSeconds())))
+                .buildAsync();
+
+        this.upstreamLoads = Counter.builder("fx.base_rates.loads")
+                .description("Upstream base-rate fetches started on cache miss or refresh")
+                .register(meterRegistry);
+        this.coalescedLoads = Counter.builder("fx.base_rates.coalesced")
+                .description("Callers that joined an in-flight base-rate fetch instead of starting one")
+                .register(meterRegistry);
+        this.refreshesAhead = Counter.builder("fx.base_rates.refresh_ahead")
+                .description("Asynchronous refreshes started for aging entries")
+                .register(meterRegistry);
+        this.staleServed = Counter.builder("fx.base_rates.stale_served")
+                .description("Reads answered with rates older than the ttl")
+                .register(meterRegistry);
+        this.upstreamFailures = Counter.builder("fx.base_rates.upstream_failures")
+                .description("Upstream fetches that returned no rates")
+                .register(meterRegistry);
+        meterRegistry.gauge("fx.base_rates.in_flight", refreshing, Map::size);
+        meterRegistry.gauge("fx.base_rates.cached", cache, c -> c.synchronous().estimatedSize());
+    }
+
+    /**
+     * Get base rates, see {@link #getSnapshot(String)}
+     * @param baseCurrency the base currency
+     * @return rates keyed by quote currency, empty if unavailable
+     */
+    public RateTable getBaseRates(String baseCurrency) {
+        RateTable table = getSnapshot(baseCurrency);
+        return table != null ? table : RateTable.empty(baseCurrency);
+    }
+
+    /**
+     * Get the cached base rate table, blocking on a load if needed
+     * @param baseCurrency the base currency
+     * @return the table (possibly stale within max-stale), or null if nothing could be loaded
+     */
+    public RateTable getSnapshot(String baseCurrency) {
+        return getSnapshotAsync(baseCurrency).join();
+    }
+
+    /**
+     * Get the cached base rate table without blocking, refreshing ahead of expiry or loading on a miss
+     * @param baseCurrency the base currency
+     * @return a future of the table (possibly stale within max-stale), completing with null if nothing could be loaded
+     */
+    public CompletableFuture<RateTable> getSnapshotAsync(String baseCurrency) {
+        if (baseCurrency == null || baseCurrency.isBlank()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String base = baseCurrency.trim().toUpperCase();
+        CompletableFuture<RateTable> entry = cache.getIfPresent(base);
+        if (entry == null) {
+            log.info("Cache MISS for baseRates key={}", base);
+            return load(base);
+        }
+        if (!entry.isDone()) {
+            coalescedLoads.increment();
+            log.debug("Joining in-flight base rates fetch for {}", base);
+            return entry;
+        }
+        RateTable cached = entry.getNow(null);
+        if (cached == null) {
+            // failed load not yet evicted
+            return load(base);
+        }
+
+        long ageMs = cached.age().toMillis();
+        long ttlMs = props.getTtlSeconds() * 1000;
+        if (ageMs < ttlMs * props.getRefreshAheadFraction()) {
+            log.debug("Cache HIT for baseRates key={}", base);
+            return entry;
+        }
+        if (!props.isRefreshAhead()) {
+            // plain expiry: revalidate before answering, falling back to the stale copy if upstream fails
+            return ageMs < ttlMs ? entry : refresh(base);
+        }
+        if (!refreshing.containsKey(base)) {
+            refreshesAhead.increment();
+            refresh(base);
+        }
+        if (ageMs >= ttlMs) {
+            staleServed.increment();
+            log.info("Serving stale baseRates key={} (age {}s) while revalidating", base, ageMs / 1000);
+        }
+        return entry;
+    }
+
+    /**
+     * Force a fetch of base rates and replace the cached entry (joins a refresh already in flight)
+     * @param baseCurrency the base currency
+     * @return the fetched rates, empty if upstream failed and nothing is cached
+     */
+    public RateTable refreshBaseRates(String baseCurrency) {
+        if (baseCurrency == null || baseCurrency.isBlank()) {
+            return RateTable.empty(baseCurrency);
+        }
+        String base = baseCurrency.trim().toUpperCase();
+        log.info("Refreshing base rates for currency: {}", base);
+        RateTable table = refresh(base).join();
+        return table != null ? table : RateTable.empty(base);
+    }
+
+    /**
+     * Load a missing entry. The in-flight future is the cache entry itself; if it completes
+     * with null (upstream failure) Caffeine drops it so the next read retries.
+     */
+    private CompletableFuture<RateTable> load(String base) {
+        boolean[] leader = new boolean[1];
+        CompletableFuture<RateTable> future = cache.get(base, (key, executor) -> {
+            leader[0] = true;
+            return fetch(key);
+        });
+        if (!leader[0]) {
+            coalescedLoads.increment();
+        }
+        return future;
+    }
+
+    /**
+     * Fetch a replacement for an existing entry, at most one per base at a time.
+     * The current entry keeps being served until the fetch succeeds.
+     * @return a future of the new table, or of the current one if upstream failed
+     */
+    private CompletableFuture<RateTable> refresh(String base) {
+        CompletableFuture<RateTable> mine = new CompletableFuture<>();
+        CompletableFuture<RateTable> existing = refreshing.putIfAbsent(base, mine);
+        if (existing != null) {
+            coalescedLoads.increment();
+            return existing;
+        }
+        fetch(base).whenComplete((fresh, error) -> {
+            RateTable result = fresh;
+            if (fresh != null) {
+                // tables are immutable, so replacing the entry swaps the whole table atomically
+                cache.put(base, CompletableFuture.completedFuture(fresh));
+            } else {
+                CompletableFuture<RateTable> entry = cache.getIfPresent(base);
+                result = entry != null && entry.isDone() ? entry.getNow(null) : null;
+                if (result != null) {
+                    log.warn("Upstream returned no rates for {}, keeping cached rates (age {}s)", base, result.age().toSeconds());
+                }
+            }
+            refreshing.remove(base, mine);
+            mine.complete(result);
+        });
+        return mine;
+    }
+
+    /**
+     * Non-blocking upstream fetch
+     * @return a future of the table, completing with null when upstream returned no rates
+     */
+    private CompletableFuture<RateTable> fetch(String base) {
+        upstreamLoads.increment();
+        log.info("Fetching base rates from API for currency: {}", base);
+        return fxApiClient.fetchBaseRatesAsync(base)
+                .<RateTable>handle((table, sink) -> {
+                    if (table.isEmpty()) {
+                        upstreamFailures.increment();
+                    } else {
+                        sink.next(table);
+                    }
+                })
+                .toFuture();
     }
 }
@@ -0,0 +1,48 @@
+package com.example.converter.service.cache;
+
+/**
+ * Packs ISO 4217 alphabetic codes into a dense int in [0, 26^3) so rate tables can be
+ * indexed by currency without String keys or boxing.
+ */
+public final class CurrencyCodes {
+
+    public static final int SPACE = 26 * 26 * 26;
+    public static final int INVALID = -1;
+
+    private CurrencyCodes() {
+    }
+
+    /**
+     * Pack a three-letter code (case-insensitive) without allocating
+     * @return the packed code, or {@link #INVALID}
+     */
+    public static int pack(String code) {
+        if (code == null || code.length() != 3) {
+            return INVALID;
+        }
+        int a = letter(code.charAt(0));
+        int b = letter(code.charAt(1));
+        int c = letter(code.charAt(2));
+        if (a < 0 || b < 0 || c < 0) {
+            return INVALID;
+        }
+        return (a * 26 + b) * 26 + c;
+    }
+
+    public static String unpack(int packed) {
+        return new String(new char[]{
+                (char) ('A' + packed / (26 * 26)),
+                (char) ('A' + (packed / 26) % 26),
+                (char) ('A' + packed % 26)});
+    }
+
+    private static int letter(char ch) {
+        if (ch >= 'A' && ch <= 'Z') {
+            return ch - 'A';
+        }
+        if (ch >= 'a' && ch <= 'z') {
+            return ch - 'a';
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.converter.service.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A resolved exchange rate together with the time its source rates were fetched.
+ * asOf is null for identity and fallback (mock) rates.
+ */
+public record FxQuote(double rate, Instant asOf, boolean stale) {
+
+    public Long ageSeconds() {
+        return asOf != null ? Duration.between(asOf, Instant.now()).toSeconds() : null;
+    }
+}
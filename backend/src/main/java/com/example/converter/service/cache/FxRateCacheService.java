@@ -1,62 +1,168 @@
 package com.example.converter.service.cache;
 
+import com.example.converter.config.FxProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FxRateCacheService {
     private final BaseRatesCacheService baseRatesCacheService;
-    private final CacheManager cacheManager;
+    private final FxProperties fxProperties;
+    private final AtomicReference<PivotRates> pivotRates = new AtomicReference<>();
 
 
-    public Map<String, Double> refreshBaseRates(String baseCurrency) {
+    public RateTable refreshBaseRates(String baseCurrency) {
         return baseRatesCacheService.refreshBaseRates(baseCurrency);
     }
 
-    @SuppressWarnings("unchecked")
     public double getRate(String baseCurrency, String quoteCurrency){
+        return getQuote(baseCurrency, quoteCurrency).rate();
+    }
+
+    /**
+     * Resolve a rate together with its age
+     * @param baseCurrency the base currency
+     * @param quoteCurrency the quote currency
+     * @return the quote; rate is -1 if no rate is available
+     */
+    public FxQuote getQuote(String baseCurrency, String quoteCurrency){
+        return resolveQuote(baseCurrency, quoteCurrency).join();
+    }
+
+    /**
+     * Non-blocking variant of {@link #getQuote(String, String)}; a cache miss waits on the
+     * upstream fetch without holding a thread.
+     */
+    public Mono<FxQuote> getQuoteAsync(String baseCurrency, String quoteCurrency){
+        return Mono.fromFuture(() -> resolveQuote(baseCurrency, quoteCurrency));
+    }
+
+    /**
+     * Resolve many pairs against one consistent set of rate tables: each distinct base (and the
+     * pivot, when triangulating) is looked up once up front, and every pair is then priced from
+     * those tables, so a refresh landing mid-batch cannot mix two generations of rates.
+     * Tables for non-triangulated bases are loaded concurrently.
+     * @param baseCurrencies normalized (trimmed, upper-case) base currencies
+     * @param quoteCurrencies normalized quote currencies, aligned with baseCurrencies
+     * @return one quote per pair; rate is -1 where no rate is available
+     */
+    public FxQuote[] getQuotes(String[] baseCurrencies, String[] quoteCurrencies) {
+        String pivot = fxProperties.getTriangulation().getPivot().trim().toUpperCase();
+        Map<String, CompletableFuture<RateTable>> tables = new HashMap<>();
+        for (int i = 0; i < baseCurrencies.length; i++) {
+            String base = baseCurrencies[i];
+            if (base.equals(quoteCurrencies[i])) {
+                continue;
+            }
+            tables.computeIfAbsent(triangulate(base) ? pivot : base, baseRatesCacheService::getSnapshotAsync);
+        }
+        CompletableFuture.allOf(tables.values().toArray(CompletableFuture[]::new)).join();
+
+        FxQuote[] quotes = new FxQuote[baseCurrencies.length];
+        for (int i = 0; i < quotes.length; i++) {
+            String base = baseCurrencies[i];
+            String quote = quoteCurrencies[i];
+            if (base.equals(quote)) {
+                quotes[i] = new FxQuote(1.0, null, false);
+                continue;
+            }
+            if (triangulate(base)) {
+                quotes[i] = crossRate(base, quote, pivot, tables.get(pivot).join());
+                if (quotes[i] != null) {
+                    continue;
+                }
+            }
+            // direct tables of triangulated bases are only loaded when the cross rate is missing
+            RateTable table = tables.computeIfAbsent(base, baseRatesCacheService::getSnapshotAsync).join();
+            quotes[i] = directQuote(base, quote, table);
+        }
+        return quotes;
+    }
+
+    private CompletableFuture<FxQuote> resolveQuote(String baseCurrency, String quoteCurrency){
         String base = baseCurrency.trim().toUpperCase();
         String quote = quoteCurrency.trim().toUpperCase();
         log.info("Fetching exchange rate for {} to {}", base, quote);
 
-        if(base.equals(quote)) return 1.0;
-
-        log.debug("Looking up base rates for: {}", base);
+        if(base.equals(quote)) return CompletableFuture.completedFuture(new FxQuote(1.0, null, false));
 
-        Map<String, Double> rates = null;
-        Cache cache = (cacheManager != null) ? cacheManager.getCache("baseRates") : null;
-        if (cache != null) {
-            Cache.ValueWrapper vw = cache.get(base);
-            if (vw != null && vw.get() instanceof Map) {
-                log.info("Cache HIT for baseRates key={}", base);
-                rates = (Map<String, Double>) vw.get();
-            } else {
-                log.info("Cache MISS for baseRates key={}", base);
-                rates = baseRatesCacheService.getBaseRates(base);
-            }
-        } else {
-            log.warn("No cache available (cacheManager is null). Falling back to API call.");
-            rates = baseRatesCacheService.getBaseRates(base);
+        if (triangulate(base)) {
+            String pivot = fxProperties.getTriangulation().getPivot().trim().toUpperCase();
+            return baseRatesCacheService.getSnapshotAsync(pivot).thenCompose(pivotTable -> {
+                FxQuote crossQuote = crossRate(base, quote, pivot, pivotTable);
+                if (crossQuote != null) {
+                    return CompletableFuture.completedFuture(crossQuote);
+                }
+                log.debug("No triangulated rate for {} to {}, falling back to direct lookup", base, quote);
+                return directRate(base, quote);
+            });
         }
+        return directRate(base, quote);
+    }
 
-        log.debug("Retrieved rates for {}: {}", base, rates);
+    private CompletableFuture<FxQuote> directRate(String base, String quote) {
+        log.debug("Looking up base rates for: {}", base);
+        return baseRatesCacheService.getSnapshotAsync(base).thenApply(snapshot -> directQuote(base, quote, snapshot));
+    }
 
-        Double v = (rates != null) ? rates.get(quote) : null;
-        if( v != null && v > 0){
+    private FxQuote directQuote(String base, String quote, RateTable snapshot) {
+        double v = (snapshot != null) ? snapshot.get(quote) : -1.0;
+        if( v > 0){
             log.info("Found API rate for {} to {}: {}", base, quote, v);
-            return v;
+            return new FxQuote(v, snapshot.fetchedAt(), isStale(snapshot));
         }
 
         log.warn("API rate not found, using MOCK rate for {} to {}", base, quote);
-        Double mockRate = MOCK.get(base).get(quote);
-        return (mockRate != null && mockRate > 0) ? mockRate : -1.0;
+        Double mockRate = MOCK.getOrDefault(base, Map.of()).get(quote);
+        return new FxQuote((mockRate != null && mockRate > 0) ? mockRate : -1.0, null, false);
+    }
+
+    private boolean isStale(RateTable table) {
+        return table.age().toSeconds() >= fxProperties.getBaseRates().getTtlSeconds();
+    }
+
+    private boolean triangulate(String base) {
+        FxProperties.Triangulation t = fxProperties.getTriangulation();
+        if (!t.isEnabled() || base.equalsIgnoreCase(t.getPivot())) {
+            return false;
+        }
+        for (String direct : t.getDirectCurrencies()) {
+            if (direct.equalsIgnoreCase(base)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Derive base -> quote from the pivot snapshot. The dense pivot view is rebuilt only when
+     * the underlying snapshot changes and is swapped in atomically.
+     * @return the cross quote, or null if the pivot snapshot lacks either currency
+     */
+    private FxQuote crossRate(String base, String quote, String pivot, RateTable snapshot) {
+        if (snapshot == null) {
+            return null;
+        }
+        PivotRates view = pivotRates.get();
+        if (view == null || !view.pivot().equals(pivot) || !view.fetchedAt().equals(snapshot.fetchedAt())) {
+            view = PivotRates.from(pivot, snapshot);
+            pivotRates.set(view);
+        }
+        double rate = view.cross(CurrencyCodes.pack(base), CurrencyCodes.pack(quote));
+        if (rate <= 0) {
+            return null;
+        }
+        log.info("Triangulated rate for {} to {} via {}: {}", base, quote, pivot, rate);
+        return new FxQuote(rate, snapshot.fetchedAt(), isStale(snapshot));
     }
 
     private static final Map<String, Map<String, Double>> MOCK = Map.of(
@@ -0,0 +1,57 @@
+package com.example.converter.service.cache;
+
+import java.time.Instant;
+
+/**
+ * Dense view of one pivot currency snapshot, indexed by packed ISO code.
+ * Any cross rate is derived as rate(pivot -> quote) / rate(pivot -> base).
+ * Immutable; a new instance replaces the old one when the pivot snapshot is refreshed.
+ */
+public final class PivotRates {
+
+    private final String pivot;
+    private final int pivotCode;
+    private final double[] rates;
+    private final Instant fetchedAt;
+
+    private PivotRates(String pivot, double[] rates, Instant fetchedAt) {
+        this.pivot = pivot;
+        this.pivotCode = CurrencyCodes.pack(pivot);
+        this.rates = rates;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public static PivotRates from(String pivot, RateTable table) {
+        double[] rates = new double[CurrencyCodes.SPACE];
+        for (int i = 0; i < table.size(); i++) {
+            rates[table.codeAt(i)] = table.rateAt(i);
+        }
+        return new PivotRates(pivot, rates, table.fetchedAt());
+    }
+
+    /**
+     * Cross rate base -> quote through the pivot
+     * @param base packed base code
+     * @param quote packed quote code
+     * @return the rate, or -1 if either leg is missing
+     */
+    public double cross(int base, int quote) {
+        if (base < 0 || quote < 0) {
+            return -1.0;
+        }
+        double toBase = base == pivotCode ? 1.0 : rates[base];
+        double toQuote = quote == pivotCode ? 1.0 : rates[quote];
+        if (toBase <= 0 || toQuote <= 0) {
+            return -1.0;
+        }
+        return toQuote / toBase;
+    }
+
+    public String pivot() {
+        return pivot;
+    }
+
+    public Instant fetchedAt() {
+        return fetchedAt;
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.converter.service.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable base-currency rate table.
+ * Quote currencies are stored as packed ISO codes (see {@link CurrencyCodes}) in a sorted int[]
+ * with the rates in a parallel double[]; lookups go through a small open-addressed index over
+ * the packed codes, so they involve no hashing of Strings, boxing or allocation.
+ * A refresh builds a new table and swaps the reference.
+ */
+public final class RateTable {
+
+    private final String base;
+    private final int[] codes;
+    private final double[] rates;
+    // open-addressed index: slotCodes[h] is a packed code or EMPTY, slotRates[h] its rate
+    private final int[] slotCodes;
+    private final double[] slotRates;
+    private final int mask;
+    private final Instant fetchedAt;
+    private final Instant sourceTimestamp;
+
+    private static final int EMPTY = -1;
+
+    private RateTable(String base, int[] codes, double[] rates, Instant fetchedAt, Instant sourceTimestamp) {
+        this.base = base;
+        this.codes = codes;
+        this.rates = rates;
+        this.fetchedAt = fetchedAt;
+        this.sourceTimestamp = sourceTimestamp;
+
+        // load factor <= 0.5 keeps probe chains short
+        int capacity = Integer.highestOneBit(Math.max(4, codes.length) * 2 - 1) << 1;
+        this.mask = capacity - 1;
+        this.slotCodes = new int[capacity];
+        this.slotRates = new double[capacity];
+        Arrays.fill(slotCodes, EMPTY);
+        for (int i = 0; i < codes.length; i++) {
+            int h = slot(codes[i]);
+            while (slotCodes[h] != EMPTY) {
+                h = (h + 1) & mask;
+            }
+            slotCodes[h] = codes[i];
+            slotRates[h] = rates[i];
+        }
+    }
+
+    public static RateTable empty(String base) {
+        return new RateTable(base, new int[0], new double[0], Instant.now(), null);
+    }
+
+    public static Builder builder(String base) {
+        return new Builder(base);
+    }
+
+    /**
+     * Rate base -> quote
+     * @return the rate, or -1 if the table has no rate for the quote
+     */
+    public double get(String quote) {
+        return get(CurrencyCodes.pack(quote));
+    }
+
+    /**
+     * Rate base -> quote for a packed quote code
+     * @return the rate, or -1 if the table has no rate for the quote
+     */
+    public double get(int quote) {
+        if (quote < 0) {
+            return -1.0;
+        }
+        int h = slot(quote);
+        int code;
+        while ((code = slotCodes[h]) != EMPTY) {
+            if (code == quote) {
+                return slotRates[h];
+            }
+            h = (h + 1) & mask;
+        }
+        return -1.0;
+    }
+
+    private int slot(int code) {
+        return (code * 0x9E3779B9 >>> 16) & mask;
+    }
+
+    public String base() {
+        return base;
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public boolean isEmpty() {
+        return codes.length == 0;
+    }
+
+    public int codeAt(int index) {
+        return codes[index];
+    }
+
+    public double rateAt(int index) {
+        return rates[index];
+    }
+
+    /**
+     * Local time the table was fetched; drives cache freshness
+     */
+    public Instant fetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * Upstream "last updated" time if the provider reported one, otherwise null
+     */
+    public Instant sourceTimestamp() {
+        return sourceTimestamp;
+    }
+
+    public Duration age() {
+        return Duration.between(fetchedAt, Instant.now());
+    }
+
+    /**
+     * Boxed copy for diagnostics and JSON output; not for the lookup path
+     */
+    public Map<String, Double> toMap() {
+        Map<String, Double> map = new LinkedHashMap<>(codes.length * 2);
+        for (int i = 0; i < codes.length; i++) {
+            map.put(CurrencyCodes.unpack(codes[i]), rates[i]);
+        }
+        return map;
+    }
+
+    public static final class Builder {
+        private final String base;
+        private int[] codes = new int[192];
+        private double[] rates = new double[192];
+        private int size;
+        private Instant fetchedAt;
+        private Instant sourceTimestamp;
+
+        private Builder(String base) {
+            this.base = base;
+        }
+
+        /**
+         * Add a rate; invalid codes and non-positive rates are ignored, a repeated code keeps the last rate
+         */
+        public Builder put(String quote, double rate) {
+            int code = CurrencyCodes.pack(quote);
+            if (code == CurrencyCodes.INVALID || !(rate > 0) || Double.isInfinite(rate)) {
+                return this;
+            }
+            if (size == codes.length) {
+                codes = Arrays.copyOf(codes, size * 2);
+                rates = Arrays.copyOf(rates, size * 2);
+            }
+            codes[size] = code;
+            rates[size] = rate;
+            size++;
+            return this;
+        }
+
+        public Builder putIfAbsent(String quote, double rate) {
+            int code = CurrencyCodes.pack(quote);
+            for (int i = 0; i < size; i++) {
+                if (codes[i] == code) {
+                    return this;
+                }
+            }
+            return put(quote, rate);
+        }
+
+        public Builder fetchedAt(Instant fetchedAt) {
+            this.fetchedAt = fetchedAt;
+            return this;
+        }
+
+        public Builder sourceTimestamp(Instant sourceTimestamp) {
+            this.sourceTimestamp = sourceTimestamp;
+            return this;
+        }
+
+        public RateTable build() {
+            // sort by code, carrying the insertion index in the low bits so the last duplicate wins
+            long[] keyed = new long[size];
+            for (int i = 0; i < size; i++) {
+                keyed[i] = ((long) codes[i] << 32) | i;
+            }
+            Arrays.sort(keyed);
+            int[] outCodes = new int[size];
+            double[] outRates = new double[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                int code = (int) (keyed[i] >>> 32);
+                int index = (int) keyed[i];
+                if (n > 0 && outCodes[n - 1] == code) {
+                    outRates[n - 1] = rates[index];
+                } else {
+                    outCodes[n] = code;
+                    outRates[n] = rates[index];
+                    n++;
+                }
+            }
+            return new RateTable(base,
+                    n == size ? outCodes : Arrays.copyOf(outCodes, n),
+                    n == size ? outRates : Arrays.copyOf(outRates, n),
+                    fetchedAt != null ? fetchedAt : Instant.now(),
+                    sourceTimestamp);
+        }
+    }
+}
@@ -1,23 +1,39 @@
 package com.example.converter.service.currency;
 
+import com.example.converter.dto.conversion.CurrencyBatchConversionRequest;
+import com.example.converter.dto.conversion.CurrencyBatchConversionResponse;
 import com.example.converter.dto.conversion.CurrencyConversionRequest;
 import com.example.converter.dto.conversion.CurrencyConversionResponse;
-import com.example.converter.entity.ExchangeRateHistory;
+import com.example.converter.entity.CurrencyConversionAudit;
 import com.example.converter.entity.User;
-import com.example.converter.repository.ExchangeRateHistoryRepository;
 import com.example.converter.repository.NewsArticleRepository;
 import com.example.converter.repository.UserRepository;
 import com.example.converter.security.UserPrincipal;
+import com.example.converter.service.cache.FxQuote;
 import com.example.converter.service.cache.FxRateCacheService;
+import com.example.converter.service.exchange.RateSnapshotter;
+import com.example.converter.service.stream.ConversionStreams;
+import com.example.converter.service.stream.StreamFormat;
+import com.example.converter.service.stream.StreamStats;
+import com.example.converter.service.writebehind.ConversionLogWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.math.BigDecimal;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -26,7 +42,8 @@ import java.util.Optional;
  * Spring Boot Service for currency conversion functionality.
  * Method: convertCurrency(double amount, String fromCurrency, String toCurrency).
  * Logic:
- *   1. Save exchange rate to Redis Cache and exchange_rate_history table through ExchangeRateHistoryRepository.
+ *   1. Resolve the exchange rate from the rate cache and queue a currency_conversion_audit row on the ConversionLogWriter
+ *      write-behind queue; exchange_rate_history is recorded separately by the RateSnapshotter.
  *   2. Call Python Microservice /predict to get exchange rate prediction data.
  *   3. Return conversion result and prediction data.
  * Handles invalid currencies or errors from external API.
@@ -36,15 +53,22 @@ import java.util.Optional;
 @Slf4j
 public class CurrencyConversionService {
 
-    private final ExchangeRateHistoryRepository exchangeRateHistoryRepository;
+    private final ConversionLogWriter conversionLogWriter;
     private final WebClient webClient;
     private final NewsArticleRepository newsArticleRepository;
     private final FxRateCacheService fxRateCacheService;
     private final UserRepository userRepository;
+    private final ConversionStreams conversionStreams;
+    private final RateSnapshotter rateSnapshotter;
+
+    private static final String[] STREAM_FIELDS = {"amount", "fromCurrency", "toCurrency", "convertedAmount"};
 
     @Value("${microservice.predict.url}")
     private String predictServiceUrl;
 
+    @Value("${app.conversion.currency.batch.max-items:100000}")
+    private int maxBatchItems;
+
 
     /**
      * Convert currency from one currency to another
@@ -56,7 +80,8 @@ public class CurrencyConversionService {
         log.info("Converting {} {} to {}", request.getAmount(), request.getFromCurrency(), request.getToCurrency());
 
         try {
-            double exchangeRate = fxRateCacheService.getRate(request.getFromCurrency(), request.getToCurrency());
+            FxQuote quote = fxRateCacheService.getQuote(request.getFromCurrency(), request.getToCurrency());
+            double exchangeRate = quote.rate();
 
             if (exchangeRate < 0) {
                 log.error("Invalid exchange rate for {} to {}: {}", request.getFromCurrency(), request.getToCurrency(), exchangeRate);
@@ -65,30 +90,10 @@ public class CurrencyConversionService {
 
             double convertedAmount = request.getAmount() * exchangeRate;
 
-            Long userId = null;
-            if (authentication != null && authentication.isAuthenticated()) {
-                try {
-                    String username = authentication.getName();
-                    Object principal = authentication.getPrincipal();
-                    log.debug("Authentication details - isAuthenticated: {}, name: {}, principal type: {}", 
-                            authentication.isAuthenticated(), username, principal.getClass().getSimpleName());
-                    
-                    if (principal instanceof UserPrincipal) {
-                        UserPrincipal userPrincipal = (UserPrincipal) principal;
-                        userId = userPrincipal.getId();
-                        log.debug("Found UserPrincipal with ID: {} for username: {}", userId, username);
-                    } else {
-                        log.debug("Principal is not UserPrincipal, looking up by username: {}", username);
-                        userId = getUserIdByUsername(username);
-                    }
-                } catch (Exception e) {
-                    log.warn("Failed to get user ID: {}", e.getMessage());
-                }
-            } else {
-                log.debug("No authentication or not authenticated - authentication: {}", authentication);
-            }
+            Long userId = resolveUserId(authentication);
 
-            saveExchangeRateHistory(request.getFromCurrency(), request.getToCurrency(), exchangeRate, userId);
+            saveAudit(request.getFromCurrency(), request.getToCurrency(), request.getAmount(), exchangeRate, 1,
+                    CurrencyConversionAudit.SINGLE, userId);
 
             List<Map<String, Object>> predictionData = getPredictionData(request.getFromCurrency(), request.getToCurrency());
 
@@ -96,7 +101,8 @@ public class CurrencyConversionService {
             log.info("Successfully converted {} {} to {} {}", 
                     request.getAmount(), request.getFromCurrency(), convertedAmount, request.getToCurrency());
             
-            return new CurrencyConversionResponse(convertedAmount, request.getToCurrency(), exchangeRate, predictionData);
+            return new CurrencyConversionResponse(convertedAmount, request.getToCurrency(), exchangeRate, predictionData,
+                    quote.ageSeconds(), quote.stale());
             
         } catch (Exception e) {
             log.error("Currency conversion error: {}", e.getMessage());
@@ -106,28 +112,252 @@ public class CurrencyConversionService {
 
 
     /**
-     * Save exchange rate history
-     * @param baseCurrency the base currency
-     * @param targetCurrency the target currency
-     * @param rate the exchange rate
+     * Convert a batch of (amount, from, to) items.
+     * Distinct pairs are interned first; all of their rates come from one consistent set of rate
+     * tables (each base resolved once), amounts are converted in a primitive loop, and one
+     * audit row (summed amount, item count) is queued per distinct pair rather than per item.
+     * @param request the batch request
+     * @param authentication the authentication object to get user ID
+     * @return columnar results aligned with the request items, with the rate snapshot time
+     */
+    public CurrencyBatchConversionResponse convertCurrencyBatch(CurrencyBatchConversionRequest request, Authentication authentication) {
+        List<CurrencyConversionRequest> items = request.getItems();
+        int count = items.size();
+        if (count > maxBatchItems) {
+            throw new IllegalArgumentException("Batch too large: " + count + " items (max " + maxBatchItems + ")");
+        }
+
+        Map<String, Integer> pairIds = new HashMap<>();
+        List<String> bases = new ArrayList<>();
+        List<String> quotes = new ArrayList<>();
+        int[] pairOf = new int[count];
+        double[] amounts = new double[count];
+        for (int i = 0; i < count; i++) {
+            CurrencyConversionRequest item = items.get(i);
+            String base = item.getFromCurrency().trim().toUpperCase();
+            String quote = item.getToCurrency().trim().toUpperCase();
+            Integer id = pairIds.get(base + quote);
+            if (id == null) {
+                id = bases.size();
+                pairIds.put(base + quote, id);
+                bases.add(base);
+                quotes.add(quote);
+            }
+            pairOf[i] = id;
+            amounts[i] = item.getAmount();
+        }
+
+        FxQuote[] pairQuotes = fxRateCacheService.getQuotes(bases.toArray(String[]::new), quotes.toArray(String[]::new));
+        double[] pairRates = new double[pairQuotes.length];
+        Instant snapshotAt = null;
+        boolean stale = false;
+        for (int p = 0; p < pairQuotes.length; p++) {
+            FxQuote quote = pairQuotes[p];
+            if (quote.rate() < 0) {
+                throw new IllegalArgumentException("Invalid exchange rate for " + bases.get(p) + " to " + quotes.get(p));
+            }
+            pairRates[p] = quote.rate();
+            if (quote.asOf() != null && (snapshotAt == null || quote.asOf().isBefore(snapshotAt))) {
+                snapshotAt = quote.asOf();
+            }
+            stale |= quote.stale();
+        }
+
+        double[] converted = new double[count];
+        double[] rates = new double[count];
+        double[] pairAmounts = new double[pairRates.length];
+        int[] pairItems = new int[pairRates.length];
+        for (int i = 0; i < count; i++) {
+            int p = pairOf[i];
+            double rate = pairRates[p];
+            rates[i] = rate;
+            converted[i] = amounts[i] * rate;
+            pairAmounts[p] += amounts[i];
+            pairItems[p]++;
+        }
+
+        Long userId = resolveUserId(authentication);
+        for (int p = 0; p < pairRates.length; p++) {
+            saveAudit(bases.get(p), quotes.get(p), pairAmounts[p], pairRates[p], pairItems[p],
+                    CurrencyConversionAudit.BATCH, userId);
+        }
+        log.info("Converted batch of {} items across {} currency pairs", count, pairRates.length);
+
+        return new CurrencyBatchConversionResponse(count, converted, rates, snapshotAt, stale);
+    }
+
+    /**
+     * Stream-convert CSV or NDJSON amount rows from in to out without buffering the input.
+     * Each distinct pair is priced once per stream (so the whole stream uses one rate per pair; a pair
+     * whose lookup fails fails every row of it without another lookup) and gets one audit row (summed amount, row count) at the end of the stream.
+     * @param format the line format
+     * @param fromCurrency default source currency for rows without a pair (may be null)
+     * @param toCurrency default target currency for rows without a pair (may be null)
+     * @param authentication the authentication object to get user ID
+     * @return row counts and elapsed time
+     */
+    public StreamStats convertStream(StreamFormat format, BufferedReader in, Writer out,
+                                     String fromCurrency, String toCurrency, Authentication authentication) throws IOException {
+        // pair -> {rate, summed amount, rows}
+        Map<String, double[]> pairRates = new LinkedHashMap<>();
+        // pair -> lookup failure, so later rows of a bad pair fail without another upstream fetch
+        Map<String, RuntimeException> failedPairs = new HashMap<>();
+        StreamStats stats = conversionStreams.pipe("currency", format, in, out, STREAM_FIELDS, fromCurrency, toCurrency,
+                (amount, from, to) -> {
+                    String base = from.trim().toUpperCase();
+                    String quote = to.trim().toUpperCase();
+                    if (base.length() != 3 || quote.length() != 3) {
+                        throw new IllegalArgumentException("Currency codes must be exactly 3 characters");
+                    }
+                    double[] pair = pairRates.get(base + quote);
+                    if (pair == null) {
+                        RuntimeException failed = failedPairs.get(base + quote);
+                        if (failed != null) {
+                            throw failed;
+                        }
+                        try {
+                            double rate = fxRateCacheService.getQuote(base, quote).rate();
+                            if (rate < 0) {
+                                throw new IllegalArgumentException("Invalid exchange rate for " + base + " to " + quote);
+                            }
+                            pair = new double[]{rate, 0, 0};
+                        } catch (RuntimeException e) {
+                            failedPairs.put(base + quote, e);
+                            throw e;
+                        }
+                        pairRates.put(base + quote, pair);
+                    }
+                    pair[1] += amount;
+                    pair[2]++;
+                    return amount * pair[0];
+                });
+
+        Long userId = resolveUserId(authentication);
+        pairRates.forEach((pair, v) -> saveAudit(pair.substring(0, 3), pair.substring(3), v[1], v[0], (int) v[2],
+                CurrencyConversionAudit.STREAM, userId));
+        return stats;
+    }
+
+    /**
+     * Non-blocking variant of {@link #convertCurrency}: the rate comes from the cache (or a shared
+     * non-blocking upstream fetch on a miss) and the audit row is handed to the write-behind queue
+     * without waiting, so no thread is held while upstream is slow.
+     * @param request the conversion request
+     * @param authentication the authentication object to get user ID
+     * @return Mono of CurrencyConversionResponse; errors with IllegalArgumentException for unknown pairs
+     */
+    public Mono<CurrencyConversionResponse> convertCurrencyReactive(CurrencyConversionRequest request, Authentication authentication) {
+        log.info("Converting {} {} to {} (reactive)", request.getAmount(), request.getFromCurrency(), request.getToCurrency());
+
+        Mono<Optional<Long>> userId = resolveUserIdAsync(authentication)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+
+        return fxRateCacheService.getQuoteAsync(request.getFromCurrency(), request.getToCurrency())
+                .zipWith(userId)
+                .map(tuple -> {
+                    FxQuote quote = tuple.getT1();
+                    double exchangeRate = quote.rate();
+                    if (exchangeRate < 0) {
+                        log.error("Invalid exchange rate for {} to {}: {}", request.getFromCurrency(), request.getToCurrency(), exchangeRate);
+                        throw new IllegalArgumentException("Invalid exchange rate for " + request.getFromCurrency() + " to " + request.getToCurrency());
+                    }
+                    double convertedAmount = request.getAmount() * exchangeRate;
+
+                    CurrencyConversionAudit audit = audit(request.getFromCurrency(), request.getToCurrency(), request.getAmount(),
+                            exchangeRate, 1, CurrencyConversionAudit.REACTIVE, tuple.getT2().orElse(null));
+                    if (!conversionLogWriter.trySubmit(audit)) {
+                        log.warn("Currency conversion audit dropped for {} to {}", request.getFromCurrency(), request.getToCurrency());
+                    }
+                    rateSnapshotter.track(audit.getFromCurrency(), audit.getToCurrency());
+
+                    return new CurrencyConversionResponse(convertedAmount, request.getToCurrency(), exchangeRate,
+                            getPredictionData(request.getFromCurrency(), request.getToCurrency()),
+                            quote.ageSeconds(), quote.stale());
+                });
+    }
+
+    /**
+     * Resolve the user ID without blocking the caller; the username lookup (JPA) runs on the bounded elastic scheduler
+     * @param authentication the authentication object
+     * @return Mono of the user ID, empty for anonymous users
+     */
+    private Mono<Long> resolveUserIdAsync(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return Mono.empty();
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return Mono.justOrEmpty(userPrincipal.getId());
+        }
+        String username = authentication.getName();
+        return Mono.fromCallable(() -> getUserIdByUsername(username))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Resolve the user ID of the caller
+     * @param authentication the authentication object
+     * @return user ID or null for anonymous callers
+     */
+    private Long resolveUserId(Authentication authentication) {
+        Long userId = null;
+        if (authentication != null && authentication.isAuthenticated()) {
+            try {
+                String username = authentication.getName();
+                Object principal = authentication.getPrincipal();
+                log.debug("Authentication details - isAuthenticated: {}, name: {}, principal type: {}", 
+                        authentication.isAuthenticated(), username, principal.getClass().getSimpleName());
+
+                if (principal instanceof UserPrincipal) {
+                    UserPrincipal userPrincipal = (UserPrincipal) principal;
+                    userId = userPrincipal.getId();
+                    log.debug("Found UserPrincipal with ID: {} for username: {}", userId, username);
+                } else {
+                    log.debug("Principal is not UserPrincipal, looking up by username: {}", username);
+                    userId = getUserIdByUsername(username);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to get user ID: {}", e.getMessage());
+            }
+        } else {
+            log.debug("No authentication or not authenticated - authentication: {}", authentication);
+        }
+        return userId;
+    }
+
+    /**
+     * Queue a currency conversion audit row and let the snapshotter track the pair
+     * @param amount the converted amount (summed for batch and stream requests)
+     * @param itemCount number of items the row covers
+     * @param channel one of the CurrencyConversionAudit channel constants
      * @param userId the user ID (can be null for anonymous users)
      */
-    private void saveExchangeRateHistory(String baseCurrency, String targetCurrency, double rate, Long userId) {
+    private void saveAudit(String baseCurrency, String targetCurrency, double amount, double rate, int itemCount,
+                           String channel, Long userId) {
         try {
-            ExchangeRateHistory history = new ExchangeRateHistory();
-            history.setBaseCurrency(baseCurrency);
-            history.setTargetCurrency(targetCurrency);
-            history.setRate(BigDecimal.valueOf(rate));
-            history.setUserId(userId);
-            history.setRecordedAt(LocalDateTime.now());
-            
-            exchangeRateHistoryRepository.save(history);
-            log.info("Saved exchange rate history: {} to {} = {} for user: {}", baseCurrency, targetCurrency, rate, userId);
+            CurrencyConversionAudit audit = audit(baseCurrency, targetCurrency, amount, rate, itemCount, channel, userId);
+            conversionLogWriter.submit(audit);
+            rateSnapshotter.track(audit.getFromCurrency(), audit.getToCurrency());
+            log.debug("Queued currency conversion audit: {} to {} = {} for user: {}", baseCurrency, targetCurrency, rate, userId);
         } catch (Exception e) {
-            log.error("Failed to save exchange rate history: {}", e.getMessage());
+            log.error("Failed to save currency conversion audit: {}", e.getMessage());
         }
     }
 
+    private static CurrencyConversionAudit audit(String baseCurrency, String targetCurrency, double amount, double rate,
+                                                 int itemCount, String channel, Long userId) {
+        CurrencyConversionAudit audit = new CurrencyConversionAudit();
+        audit.setFromCurrency(baseCurrency.trim().toUpperCase());
+        audit.setToCurrency(targetCurrency.trim().toUpperCase());
+        audit.setAmount(amount);
+        audit.setRate(rate);
+        audit.setItemCount(itemCount);
+        audit.setChannel(channel);
+        audit.setUserId(userId);
+        audit.setConvertedAt(LocalDateTime.now());
+        return audit;
+    }
+
     /**
      * Get prediction data from Python microservice
      * @param baseCurrency the base currency
@@ -1,37 +1,83 @@
 package com.example.converter.service.exchange;
 
 import com.example.converter.dto.exchange.FxHistoryResponse;
+import com.example.converter.dto.exchange.FxOhlcDTO;
+import com.example.converter.dto.exchange.FxOhlcResponse;
 import com.example.converter.dto.exchange.FxPointDTO;
-import com.example.converter.entity.ExchangeRateHistory;
-import com.example.converter.repository.ExchangeRateHistoryRepository;
+import com.example.converter.entity.ExchangeRateOhlc;
+import com.example.converter.repository.ExchangeRateOhlcRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Exchange rate history served from the exchange_rate_ohlc rollups (see ExchangeRateRollups),
+ * so a query reads at most one row per day (or hour) in range instead of every recorded conversion.
+ */
 @Service
 @RequiredArgsConstructor
 public class ExchangeHistoryService {
-    
-    private final ExchangeRateHistoryRepository repo;
-
-    @Cacheable(value="fxHistory", key="#base+'|'+#quote+'|'+#from+'|'+#to+'|'+#limit", unless="#result==null || #result.history.isEmpty()")
-    public FxHistoryResponse getHistory(String base, String quote, LocalDate from, LocalDate to, Integer limit) {
-        List<ExchangeRateHistory> rows = repo.findHistoryForPredict(base, quote, from, to);
-        if (rows.isEmpty()) {
-            return new FxHistoryResponse(base, quote, List.of());
-        }
-
-        if (limit != null && limit > 0 && rows.size() > limit) {
-            rows = rows.subList(Math.max(0, rows.size() - limit), rows.size());
-        }
-        
-        List<FxPointDTO> pts = rows.stream()
-            .map(r -> new FxPointDTO(r.getRecordedAt().toLocalDate(), r.getRate()))
+
+    private static final LocalDateTime MIN_TIME = LocalDate.of(1970, 1, 1).atStartOfDay();
+    private static final LocalDateTime MAX_TIME = LocalDate.of(9999, 1, 1).atStartOfDay();
+
+    private final ExchangeRateOhlcRepository ohlcRepo;
+
+    /**
+     * Daily close rates of a pair, oldest first
+     * @param from first day (inclusive), null for unbounded
+     * @param to last day (inclusive), null for unbounded
+     * @param limit keep only the latest limit days, null for all
+     * @param version the pair's history watermark tag; part of the cache key, so a write to the pair
+     *                retires its cached responses
+     */
+    @Cacheable(value="fxHistory", key="#base+'|'+#quote+'|'+#from+'|'+#to+'|'+#limit+'|'+#version", unless="#result==null || #result.history.isEmpty()")
+    public FxHistoryResponse getHistory(String base, String quote, LocalDate from, LocalDate to, Integer limit, String version) {
+        List<ExchangeRateOhlc> buckets = latestBuckets(base, quote, ExchangeRateOhlc.DAILY, from, to, limit);
+
+        List<FxPointDTO> pts = buckets.stream()
+            .map(b -> new FxPointDTO(b.getBucketStart().toLocalDate(), b.getCloseRate()))
             .toList();
-            
+
         return new FxHistoryResponse(base, quote, pts);
     }
-}
\ No newline at end of file
+
+    /**
+     * OHLC buckets of a pair, oldest first
+     * @param hourly hourly buckets if true, daily otherwise
+     * @param from first day (inclusive), null for unbounded
+     * @param to last day (inclusive), null for unbounded
+     * @param limit keep only the latest limit buckets, null for all
+     */
+    public FxOhlcResponse getOhlc(String base, String quote, boolean hourly, LocalDate from, LocalDate to, Integer limit) {
+        String granularity = hourly ? ExchangeRateOhlc.HOURLY : ExchangeRateOhlc.DAILY;
+        List<FxOhlcDTO> buckets = latestBuckets(base, quote, granularity, from, to, limit).stream()
+            .map(b -> new FxOhlcDTO(b.getBucketStart(), b.getOpenRate(), b.getHighRate(), b.getLowRate(), b.getCloseRate(), b.getSampleCount()))
+            .toList();
+        return new FxOhlcResponse(base, quote, hourly ? "hour" : "day", buckets);
+    }
+
+    /**
+     * Read the latest buckets in [from, to + 1 day) newest first (limit applied in SQL) and return them oldest first
+     */
+    private List<ExchangeRateOhlc> latestBuckets(String base, String quote, String granularity,
+                                                 LocalDate from, LocalDate to, Integer limit) {
+        LocalDateTime start = from != null ? from.atStartOfDay() : MIN_TIME;
+        LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : MAX_TIME;
+        Pageable page = limit != null && limit > 0 ? PageRequest.of(0, limit) : Pageable.unpaged();
+
+        List<ExchangeRateOhlc> newestFirst = ohlcRepo.findLatestBuckets(
+            base.toUpperCase(), quote.toUpperCase(), granularity, start, end, page);
+        List<ExchangeRateOhlc> rows = new ArrayList<>(newestFirst);
+        Collections.reverse(rows);
+        return rows;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.converter.service.exchange;
+
+import com.example.converter.entity.ExchangeRateHistory;
+import com.example.converter.entity.ExchangeRateOhlc;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental maintenance of the exchange_rate_ohlc hourly/daily buckets.
+ * A batch of history rows is first folded in memory into one partial bucket per
+ * (pair, granularity, bucket) and then merged into the table with one upsert per bucket,
+ * so a flush of thousands of rows for a popular pair touches two rows.
+ * Callers run this in the same transaction as the raw insert so a retried batch is not counted twice.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExchangeRateRollups {
+
+    private static final String UPSERT =
+            "INSERT INTO exchange_rate_ohlc AS o (base_currency, target_currency, granularity, bucket_start, "
+            + "open_rate, high_rate, low_rate, close_rate, sample_count, open_at, close_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT ON CONSTRAINT uk_ohlc_bucket DO UPDATE SET "
+            + "open_rate = CASE WHEN EXCLUDED.open_at < o.open_at THEN EXCLUDED.open_rate ELSE o.open_rate END, "
+            + "open_at = LEAST(o.open_at, EXCLUDED.open_at), "
+            + "high_rate = GREATEST(o.high_rate, EXCLUDED.high_rate), "
+            + "low_rate = LEAST(o.low_rate, EXCLUDED.low_rate), "
+            + "close_rate = CASE WHEN EXCLUDED.close_at >= o.close_at THEN EXCLUDED.close_rate ELSE o.close_rate END, "
+            + "close_at = GREATEST(o.close_at, EXCLUDED.close_at), "
+            + "sample_count = o.sample_count + EXCLUDED.sample_count";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Fold a batch of recorded rates into the hourly and daily buckets
+     * @param rows history rows with recordedAt set
+     */
+    public void apply(List<ExchangeRateHistory> rows) {
+        Map<BucketKey, Bucket> buckets = new HashMap<>();
+        for (ExchangeRateHistory r : rows) {
+            String base = r.getBaseCurrency().toUpperCase();
+            String quote = r.getTargetCurrency().toUpperCase();
+            LocalDateTime at = r.getRecordedAt();
+            fold(buckets, new BucketKey(base, quote, ExchangeRateOhlc.HOURLY, at.truncatedTo(ChronoUnit.HOURS)), r.getRate(), at);
+            fold(buckets, new BucketKey(base, quote, ExchangeRateOhlc.DAILY, at.truncatedTo(ChronoUnit.DAYS)), r.getRate(), at);
+        }
+        if (buckets.isEmpty()) {
+            return;
+        }
+        // one statement per bucket: a multi-row upsert may not touch the same row twice
+        List<Map.Entry<BucketKey, Bucket>> entries = List.copyOf(buckets.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT, entries, entries.size(), (ps, e) -> {
+            BucketKey k = e.getKey();
+            Bucket b = e.getValue();
+            ps.setString(1, k.base());
+            ps.setString(2, k.quote());
+            ps.setString(3, k.granularity());
+            ps.setTimestamp(4, Timestamp.valueOf(k.start()));
+            ps.setBigDecimal(5, b.open);
+            ps.setBigDecimal(6, b.high);
+            ps.setBigDecimal(7, b.low);
+            ps.setBigDecimal(8, b.close);
+            ps.setLong(9, b.count);
+            ps.setTimestamp(10, Timestamp.valueOf(b.openAt));
+            ps.setTimestamp(11, Timestamp.valueOf(b.closeAt));
+        });
+    }
+
+    private static void fold(Map<BucketKey, Bucket> buckets, BucketKey key, BigDecimal rate, LocalDateTime at) {
+        Bucket b = buckets.get(key);
+        if (b == null) {
+            buckets.put(key, new Bucket(rate, at));
+            return;
+        }
+        if (at.isBefore(b.openAt)) {
+            b.open = rate;
+            b.openAt = at;
+        }
+        if (!at.isBefore(b.closeAt)) {
+            b.close = rate;
+            b.closeAt = at;
+        }
+        if (rate.compareTo(b.high) > 0) {
+            b.high = rate;
+        }
+        if (rate.compareTo(b.low) < 0) {
+            b.low = rate;
+        }
+        b.count++;
+    }
+
+    private record BucketKey(String base, String quote, String granularity, LocalDateTime start) {
+    }
+
+    private static final class Bucket {
+        BigDecimal open;
+        BigDecimal high;
+        BigDecimal low;
+        BigDecimal close;
+        LocalDateTime openAt;
+        LocalDateTime closeAt;
+        long count = 1;
+
+        Bucket(BigDecimal rate, LocalDateTime at) {
+            open = high = low = close = rate;
+            openAt = closeAt = at;
+        }
+    }
+}
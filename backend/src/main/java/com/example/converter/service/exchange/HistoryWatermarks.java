@@ -0,0 +1,113 @@
+package com.example.converter.service.exchange;
+
+import com.example.converter.entity.ExchangeRateHistory;
+import com.example.converter.entity.ExchangeRateOhlc;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-pair version of the exchange history, kept in Redis as {count, last recorded_at} and
+ * advanced by the write-behind flush after each committed batch. The history endpoint derives
+ * its ETag/Last-Modified from it, so conditional requests are answered without reading history.
+ * A pair with no watermark yet (or Redis unavailable) is seeded from the daily rollups.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HistoryWatermarks {
+
+    private static final String COUNT = "count";
+    private static final String LAST = "last";
+
+    // count += n; last = max(last, t)
+    private static final DefaultRedisScript<Long> ADVANCE = new DefaultRedisScript<>(
+            "redis.call('HINCRBY', KEYS[1], 'count', ARGV[1]) "
+            + "local last = tonumber(redis.call('HGET', KEYS[1], 'last') or '0') "
+            + "if tonumber(ARGV[2]) > last then redis.call('HSET', KEYS[1], 'last', ARGV[2]) end "
+            + "return 1", Long.class);
+
+    private static final String SEED_SQL =
+            "SELECT coalesce(sum(sample_count), 0), max(close_at) FROM exchange_rate_ohlc "
+            + "WHERE base_currency = ? AND target_currency = ? AND granularity = ?";
+
+    private final StringRedisTemplate redis;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param count rows recorded for the pair (a version number, not an exact total)
+     * @param lastRecordedAt epoch millis of the newest recorded_at, 0 if none
+     */
+    public record Watermark(long count, long lastRecordedAt) {
+        /** opaque version string, changes whenever history of the pair is written */
+        public String tag() {
+            return Long.toString(count, 36) + "-" + Long.toString(lastRecordedAt, 36);
+        }
+    }
+
+    private static String key(String base, String quote) {
+        return "fx:history:wm:" + base + ":" + quote;
+    }
+
+    /**
+     * Advance the watermarks of every pair in a committed batch; failures are logged, never thrown,
+     * so the already committed batch is not retried
+     */
+    public void advance(List<ExchangeRateHistory> rows) {
+        Map<String, long[]> pairs = new HashMap<>();
+        for (ExchangeRateHistory r : rows) {
+            long[] acc = pairs.computeIfAbsent(key(r.getBaseCurrency(), r.getTargetCurrency()), k -> new long[2]);
+            acc[0]++;
+            acc[1] = Math.max(acc[1], toMillis(r.getRecordedAt()));
+        }
+        try {
+            pairs.forEach((key, acc) ->
+                    redis.execute(ADVANCE, List.of(key), Long.toString(acc[0]), Long.toString(acc[1])));
+        } catch (RuntimeException ex) {
+            log.warn("Redis unavailable while advancing history watermarks for {} pair(s): {}", pairs.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Current watermark of a pair (codes upper-case)
+     */
+    public Watermark get(String base, String quote) {
+        String key = key(base, quote);
+        try {
+            List<Object> values = redis.opsForHash().multiGet(key, List.of(COUNT, LAST));
+            if (values.get(0) != null) {
+                return new Watermark(Long.parseLong((String) values.get(0)),
+                        values.get(1) != null ? Long.parseLong((String) values.get(1)) : 0L);
+            }
+            Watermark seed = seed(base, quote);
+            // a concurrent flush may already have created the key; it wins
+            redis.opsForHash().putIfAbsent(key, COUNT, Long.toString(seed.count()));
+            redis.opsForHash().putIfAbsent(key, LAST, Long.toString(seed.lastRecordedAt()));
+            return seed;
+        } catch (RuntimeException ex) {
+            log.warn("Redis unavailable while reading history watermark {}, seeding from rollups: {}", key, ex.getMessage());
+            return seed(base, quote);
+        }
+    }
+
+    private Watermark seed(String base, String quote) {
+        return jdbcTemplate.queryForObject(SEED_SQL, (rs, i) -> {
+            Timestamp last = rs.getTimestamp(2);
+            return new Watermark(rs.getLong(1), last != null ? toMillis(last.toLocalDateTime()) : 0L);
+        }, base, quote, ExchangeRateOhlc.DAILY);
+    }
+
+    private static long toMillis(LocalDateTime t) {
+        return t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
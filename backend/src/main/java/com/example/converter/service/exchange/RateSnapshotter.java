@@ -0,0 +1,215 @@
+package com.example.converter.service.exchange;
+
+import com.example.converter.config.FxProperties;
+import com.example.converter.entity.ExchangeRateHistory;
+import com.example.converter.service.cache.FxQuote;
+import com.example.converter.service.cache.FxRateCacheService;
+import com.example.converter.service.writebehind.ConversionLogWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records exchange_rate_history from the base-rates cache instead of from user traffic: once per
+ * interval, one canonical point per tracked pair (configured pairs plus, optionally, pairs users
+ * have converted), all stamped with the start of the interval. History write volume is bounded by
+ * pairs / interval whatever the request rate.
+ * With several instances, observed pairs are shared through a capped Redis set so whichever
+ * instance records a slot covers pairs converted anywhere, and a Redis key per interval slot,
+ * claimed once the quotes are in hand, lets only the first one record it.
+ */
+@Component
+@Slf4j
+public class RateSnapshotter {
+
+    static final String TRACKED_PAIRS_KEY = "fx:snapshot:pairs";
+
+    private final FxRateCacheService fxRateCacheService;
+    private final ConversionLogWriter conversionLogWriter;
+    private final StringRedisTemplate redis;
+    private final FxProperties.Snapshot props;
+    private final Set<String> observed = ConcurrentHashMap.newKeySet();
+    private final Set<String> published = ConcurrentHashMap.newKeySet();
+    private final Counter points;
+
+    public RateSnapshotter(FxRateCacheService fxRateCacheService, ConversionLogWriter conversionLogWriter,
+                           StringRedisTemplate redis, FxProperties fxProperties, MeterRegistry meterRegistry) {
+        this.fxRateCacheService = fxRateCacheService;
+        this.conversionLogWriter = conversionLogWriter;
+        this.redis = redis;
+        this.props = fxProperties.getSnapshot();
+        this.points = Counter.builder("fx.snapshot.points")
+                .description("Canonical exchange rate points recorded by the snapshotter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Note a pair a user converted so it is snapshotted from now on (bounded by maxPairs).
+     * Only local; the next snapshot() publishes it to the shared set.
+     * @param base normalized base currency
+     * @param quote normalized quote currency
+     */
+    public void track(String base, String quote) {
+        if (!props.isEnabled() || !props.isTrackObserved() || base.equals(quote)) {
+            return;
+        }
+        String pair = base + "/" + quote;
+        if (observed.size() < props.getMaxPairs() && !observed.contains(pair)) {
+            observed.add(pair);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.fx.snapshot.interval-seconds:300}", initialDelay = 30, timeUnit = TimeUnit.SECONDS)
+    public void snapshot() {
+        if (!props.isEnabled()) {
+            return;
+        }
+        long interval = Math.max(1, props.getIntervalSeconds());
+        long slot = Instant.now().getEpochSecond() / interval * interval;
+        publishObserved();
+
+        Set<String> pairs = new LinkedHashSet<>();
+        for (String pair : props.getPairs()) {
+            if (pairs.size() >= props.getMaxPairs()) {
+                break;
+            }
+            String p = pair.trim().toUpperCase();
+            if (p.length() == 7 && p.charAt(3) == '/') {
+                pairs.add(p);
+            }
+        }
+        for (String pair : trackedPairs()) {
+            if (pairs.size() >= props.getMaxPairs()) {
+                break;
+            }
+            if (pair.length() == 7 && pair.charAt(3) == '/') {
+                pairs.add(pair);
+            }
+        }
+        if (pairs.isEmpty()) {
+            return;
+        }
+
+        String[] bases = new String[pairs.size()];
+        String[] quotes = new String[pairs.size()];
+        int i = 0;
+        for (String pair : pairs) {
+            bases[i] = pair.substring(0, 3);
+            quotes[i] = pair.substring(4);
+            i++;
+        }
+        FxQuote[] rates;
+        try {
+            rates = fxRateCacheService.getQuotes(bases, quotes);
+        } catch (RuntimeException ex) {
+            // slot left unclaimed so another instance can still record it
+            log.warn("Rate snapshot slot {} skipped, quotes unavailable: {}", slot, ex.getMessage());
+            return;
+        }
+
+        LocalDateTime recordedAt = LocalDateTime.ofInstant(Instant.ofEpochSecond(slot), ZoneId.systemDefault());
+        List<ExchangeRateHistory> rows = new ArrayList<>(rates.length);
+        for (int p = 0; p < rates.length; p++) {
+            // asOf == null: identity or mock fallback, not a market rate
+            if (rates[p].rate() <= 0 || rates[p].asOf() == null) {
+                continue;
+            }
+            ExchangeRateHistory row = new ExchangeRateHistory();
+            row.setBaseCurrency(bases[p]);
+            row.setTargetCurrency(quotes[p]);
+            row.setRate(BigDecimal.valueOf(rates[p].rate()));
+            row.setRecordedAt(recordedAt);
+            rows.add(row);
+        }
+        if (rows.isEmpty()) {
+            log.warn("Rate snapshot slot {} skipped, no market rates for {} pairs", slot, rates.length);
+            return;
+        }
+        if (!claim(slot, interval)) {
+            log.debug("Rate snapshot slot {} already recorded by another instance", slot);
+            return;
+        }
+
+        int recorded = 0;
+        for (ExchangeRateHistory row : rows) {
+            if (conversionLogWriter.submit(row)) {
+                recorded++;
+            }
+        }
+        points.increment(recorded);
+        log.info("Rate snapshot at {}: {} of {} pairs recorded", recordedAt, recorded, rates.length);
+    }
+
+    /**
+     * Add locally observed pairs to the shared set, keeping it at maxPairs (approximately, under races)
+     */
+    private void publishObserved() {
+        List<String> pending = new ArrayList<>();
+        for (String pair : observed) {
+            if (!published.contains(pair)) {
+                pending.add(pair);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            Long size = redis.opsForSet().size(TRACKED_PAIRS_KEY);
+            int room = props.getMaxPairs() - (size == null ? 0 : size.intValue());
+            if (room <= 0) {
+                return;
+            }
+            List<String> batch = pending.size() > room ? pending.subList(0, room) : pending;
+            redis.opsForSet().add(TRACKED_PAIRS_KEY, batch.toArray(String[]::new));
+            published.addAll(batch);
+        } catch (RuntimeException ex) {
+            log.warn("Redis unavailable while publishing {} tracked pairs: {}", pending.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * @return the shared tracked pairs, or this instance's own when Redis is unavailable
+     */
+    private Set<String> trackedPairs() {
+        if (!props.isTrackObserved()) {
+            return Set.of();
+        }
+        try {
+            Set<String> shared = redis.opsForSet().members(TRACKED_PAIRS_KEY);
+            if (shared != null) {
+                return shared;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Redis unavailable while reading tracked pairs, using local ones: {}", ex.getMessage());
+        }
+        return observed;
+    }
+
+    /**
+     * @return true if this instance should record the slot (also when Redis is unavailable)
+     */
+    private boolean claim(long slot, long interval) {
+        try {
+            Boolean claimed = redis.opsForValue().setIfAbsent("fx:snapshot:slot:" + slot, "1", Duration.ofSeconds(interval * 2));
+            return !Boolean.FALSE.equals(claimed);
+        } catch (RuntimeException ex) {
+            log.warn("Redis unavailable while claiming rate snapshot slot {}, recording anyway: {}", slot, ex.getMessage());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.converter.service.exchange;
+
+import com.example.converter.dto.exchange.FxRatePageResponse;
+import com.example.converter.dto.exchange.FxRatePointDTO;
+import com.example.converter.service.stream.StreamFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Full-granularity exchange_rate_history reads for analysts.
+ * Pages are keyset-paginated on (recorded_at, id), so page N costs the same as page 1 and rows
+ * written meanwhile never shift a page. Exports walk the same order through a server-side cursor
+ * (fetch size, read-only transaction) and write each row as it arrives, so memory stays flat
+ * whatever the range.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RawHistoryService {
+
+    private static final int EXPORT_FETCH_SIZE = 5000;
+    private static final LocalDateTime MIN_TIME = LocalDate.of(1970, 1, 1).atStartOfDay();
+    private static final LocalDateTime MAX_TIME = LocalDate.of(9999, 1, 1).atStartOfDay();
+
+    private static final String PAGE_SQL =
+            "SELECT id, recorded_at, rate FROM exchange_rate_history "
+                    + "WHERE base_currency = ? AND target_currency = ? AND recorded_at >= ? AND recorded_at < ? "
+                    + "AND (recorded_at, id) > (?, ?) "
+                    + "ORDER BY recorded_at, id LIMIT ?";
+
+    private static final String EXPORT_SQL =
+            "SELECT id, recorded_at, rate FROM exchange_rate_history "
+                    + "WHERE base_currency = ? AND target_currency = ? AND recorded_at >= ? AND recorded_at < ? "
+                    + "ORDER BY recorded_at, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * One page of raw history, oldest first
+     * @param from first day (inclusive), null for unbounded
+     * @param to last day (inclusive), null for unbounded
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public FxRatePageResponse getPage(String base, String quote, LocalDate from, LocalDate to, String cursor, int limit) {
+        // without a cursor, (start, MIN_VALUE) admits every row of the range
+        LocalDateTime afterTime = start(from);
+        long afterId = Long.MIN_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            Object[] decoded = decodeCursor(cursor);
+            afterTime = (LocalDateTime) decoded[0];
+            afterId = (Long) decoded[1];
+        }
+        // one extra row tells whether another page exists
+        List<FxRatePointDTO> rows = jdbcTemplate.query(PAGE_SQL,
+                (rs, i) -> new FxRatePointDTO(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getBigDecimal(3)),
+                base, quote, Timestamp.valueOf(start(from)), Timestamp.valueOf(end(to)),
+                Timestamp.valueOf(afterTime), afterId, limit + 1);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            FxRatePointDTO last = rows.get(limit - 1);
+            nextCursor = encodeCursor(last.getRecordedAt(), last.getId());
+        }
+        return new FxRatePageResponse(base, quote, rows, nextCursor);
+    }
+
+    /**
+     * Stream every row of the range, oldest first, to out
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(String base, String quote, LocalDate from, LocalDate to, StreamFormat format, Writer out) throws IOException {
+        RowWriter writer = format == StreamFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(out));
+        long[] rows = new long[1];
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(EXPORT_SQL);
+                // Postgres only streams with a fetch size inside a transaction
+                ps.setFetchSize(EXPORT_FETCH_SIZE);
+                ps.setString(1, base);
+                ps.setString(2, quote);
+                ps.setTimestamp(3, Timestamp.valueOf(start(from)));
+                ps.setTimestamp(4, Timestamp.valueOf(end(to)));
+                return ps;
+            }, rs -> {
+                try {
+                    writer.row(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getBigDecimal(3));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+        log.info("Exported {} exchange history rows for {}/{}", rows[0], base, quote);
+        return rows[0];
+    }
+
+    private static LocalDateTime start(LocalDate from) {
+        return from != null ? from.atStartOfDay() : MIN_TIME;
+    }
+
+    private static LocalDateTime end(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay() : MAX_TIME;
+    }
+
+    private static String encodeCursor(LocalDateTime recordedAt, long id) {
+        String raw = recordedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new Object[]{LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1))};
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private interface RowWriter {
+        void row(long id, LocalDateTime recordedAt, BigDecimal rate) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+
+        CsvRowWriter(Writer out) throws IOException {
+            this.out = out;
+            out.write("id,recordedAt,rate\n");
+        }
+
+        @Override
+        public void row(long id, LocalDateTime recordedAt, BigDecimal rate) throws IOException {
+            out.write(Long.toString(id));
+            out.write(',');
+            out.write(recordedAt.toString());
+            out.write(',');
+            out.write(rate.toPlainString());
+            out.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+
+        NdjsonRowWriter(JsonGenerator json) {
+            this.json = json;
+            json.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void row(long id, LocalDateTime recordedAt, BigDecimal rate) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", id);
+            json.writeStringField("recordedAt", recordedAt.toString());
+            json.writeNumberField("rate", rate);
+            json.writeEndObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.writeRaw('\n');
+            json.flush();
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.converter.service.external;
 
+import com.example.converter.service.cache.RateTable;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
-import java.util.Map;
+import java.time.Instant;
 
 @Service
 @RequiredArgsConstructor
@@ -22,51 +26,60 @@ public class FxApiClient {
     private String externalApiKey;
 
     /**
-     * Fetches the latest base foreign exchange rates from an external API.
+     * Fetches the latest base foreign exchange rates from an external API, blocking the caller.
      * The rates are cached for performance and to reduce API calls.
      *
-     * @return A map of currency codes to their exchange rates.
+     * @return The rate table keyed by quote currency, empty on failure.
      */
-    public Map<String, Double> fetchBaseRates(String baseCurrency) {
+    public RateTable fetchBaseRates(String baseCurrency) {
+        RateTable rates = fetchBaseRatesAsync(baseCurrency).block();
+        return rates != null ? rates : RateTable.empty(baseCurrency.trim().toUpperCase());
+    }
+
+    /**
+     * Non-blocking variant of {@link #fetchBaseRates(String)}; never errors.
+     *
+     * @return A Mono of the rate table keyed by quote currency, empty table on failure.
+     */
+    public Mono<RateTable> fetchBaseRatesAsync(String baseCurrency) {
         String base = baseCurrency.trim().toUpperCase();
         log.info("Fetching base exchange rates for currency: {}", base);
-        try {
-            String baseUrl = externalApiUrl.endsWith("/") ? externalApiUrl : externalApiUrl + "/";
-            String url = baseUrl + externalApiKey + "/latest/" + base;
+        String baseUrl = externalApiUrl.endsWith("/") ? externalApiUrl : externalApiUrl + "/";
+        String url = baseUrl + externalApiKey + "/latest/" + base;
 
-            var node = webClient.get()
-                    .uri(url)
-                    .retrieve()
-                    .bodyToMono(com.fasterxml.jackson.databind.JsonNode.class)
-                    .timeout(Duration.ofSeconds(3))
-                    .retryWhen(reactor.util.retry.Retry.fixedDelay(3, Duration.ofSeconds(1)))
-                    .block();
-
-            if (node == null) {
-                log.error("Failed to fetch rates from external API. Response is null or missing 'rates' field.");
-                return Map.of();
-            }
-            if( node.has("result") && !"success".equals(node.get("result").asText())) {
-                log.error("External API returned an error: {}", node.get("error-type").asText());
-                return Map.of();
-            }
-            var ratesNode = node.has("conversion_rates") ? node.get("conversion_rates") : node.get("rates");
-            if (ratesNode == null || !ratesNode.isObject()) {
-                log.error("Invalid response format from external API. 'rates' field is missing or not an object.");
-                return Map.of();
-            }
-            Map<String, Double> rates = new java.util.HashMap<>();
-            ratesNode.fields().forEachRemaining(e -> {
-                if(e.getValue().isNumber()) rates.put(e.getKey().toUpperCase(), e.getValue().asDouble());
-            });
-            rates.putIfAbsent(base, 1.0);
-            log.info("Successfully fetched base exchange rates for currency: {}", base);
-            return rates;
+        return webClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(Duration.ofSeconds(3))
+                .retryWhen(Retry.fixedDelay(3, Duration.ofSeconds(1)))
+                .map(node -> toRateTable(base, node))
+                .defaultIfEmpty(RateTable.empty(base))
+                .onErrorResume(e -> {
+                    log.warn("FX API call failed for base currency {}: {}", baseCurrency, e.getMessage());
+                    return Mono.just(RateTable.empty(base));
+                });
+    }
 
-        } catch (Exception e){
-            log.warn("FX API call failed for base currency {}: {}", baseCurrency, e.getMessage());
-            return Map.of();
+    private RateTable toRateTable(String base, JsonNode node) {
+        if( node.has("result") && !"success".equals(node.get("result").asText())) {
+            log.error("External API returned an error: {}", node.path("error-type").asText());
+            return RateTable.empty(base);
         }
-
+        var ratesNode = node.has("conversion_rates") ? node.get("conversion_rates") : node.get("rates");
+        if (ratesNode == null || !ratesNode.isObject()) {
+            log.error("Invalid response format from external API. 'rates' field is missing or not an object.");
+            return RateTable.empty(base);
+        }
+        RateTable.Builder rates = RateTable.builder(base).fetchedAt(Instant.now());
+        if (node.hasNonNull("time_last_update_unix")) {
+            rates.sourceTimestamp(Instant.ofEpochSecond(node.get("time_last_update_unix").asLong()));
+        }
+        ratesNode.fields().forEachRemaining(e -> {
+            if(e.getValue().isNumber()) rates.put(e.getKey(), e.getValue().asDouble());
+        });
+        rates.putIfAbsent(base, 1.0);
+        log.info("Successfully fetched base exchange rates for currency: {}", base);
+        return rates.build();
     }
 }
@@ -0,0 +1,213 @@
+package com.example.converter.service.external;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Micro-batching client for the sentiment service.
+ * Callers ask for one text at a time; requests are grouped into batches of up to batch-size texts
+ * (or whatever arrived within max-wait-ms) and sent to the /sentiment/batch endpoint, and each
+ * result is handed back to its caller. If the batch endpoint is missing (404/405/501) the client
+ * falls back to one call per text, and probes the batch endpoint again after a while.
+ * <p>
+ * Metrics: sentiment.client.texts (throughput, tag mode=batch|single),
+ * sentiment.client.batch.fill (batch size / batch-size), sentiment.client.latency (per HTTP call)
+ * and sentiment.client.errors.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SentimentClient {
+
+    /** label is positive, negative or neutral; score in [-1, 1] */
+    public record Sentiment(String label, double score) {
+    }
+
+    private record Pending(String text, CompletableFuture<Sentiment> result) {
+    }
+
+    private static final Duration UNSUPPORTED_RETRY = Duration.ofMinutes(10);
+
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${microservice.sentiment.url}")
+    private String sentimentUrl;
+
+    @Value("${microservice.sentiment.batch-url:${microservice.sentiment.url}/batch}")
+    private String batchUrl;
+
+    @Value("${app.news.sentiment.batch-size:32}")
+    private int batchSize;
+
+    @Value("${app.news.sentiment.max-wait-ms:50}")
+    private long maxWaitMs;
+
+    /** concurrent HTTP calls (batch or single) */
+    @Value("${app.news.sentiment.concurrency:4}")
+    private int concurrency;
+
+    @Value("${app.news.sentiment.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${app.news.sentiment.max-text-chars:4000}")
+    private int maxTextChars;
+
+    private final Sinks.Many<Pending> queue = Sinks.many().unicast().onBackpressureBuffer();
+    private volatile long batchUnsupportedUntil;
+    private Disposable pipeline;
+    private DistributionSummary fill;
+    private Counter errors;
+
+    @PostConstruct
+    void start() {
+        fill = DistributionSummary.builder("sentiment.client.batch.fill")
+                .description("Batch size relative to the configured batch size")
+                .register(meterRegistry);
+        errors = Counter.builder("sentiment.client.errors")
+                .description("Failed sentiment service calls")
+                .register(meterRegistry);
+        pipeline = queue.asFlux()
+                // fair backpressure: a full or timed-out batch waits while all HTTP slots are busy instead of erroring
+                .bufferTimeout(Math.max(1, batchSize), Duration.ofMillis(Math.max(1, maxWaitMs)), true)
+                // a batch that fails outside send()'s own handling must not terminate the pipeline
+                .flatMap(batch -> Mono.defer(() -> send(batch))
+                        .onErrorResume(e -> {
+                            errors.increment();
+                            log.warn("Sentiment batch of {} failed: {}", batch.size(), e.getMessage());
+                            batch.forEach(p -> p.result().complete(null));
+                            return Mono.empty();
+                        }), Math.max(1, concurrency))
+                .subscribe(null, e -> log.error("Sentiment batching pipeline stopped: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    void stop() {
+        queue.tryEmitComplete();
+        if (pipeline != null) {
+            pipeline.dispose();
+        }
+    }
+
+    /**
+     * Score one text; it is sent with whatever else is pending
+     * @return Mono of the sentiment, empty if the service failed
+     */
+    public Mono<Sentiment> score(String text) {
+        String t = text == null ? "" : text.length() > maxTextChars ? text.substring(0, maxTextChars) : text;
+        CompletableFuture<Sentiment> result = new CompletableFuture<>();
+        queue.emitNext(new Pending(t, result), Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+        return Mono.fromFuture(result);
+    }
+
+    private Mono<Void> send(List<Pending> batch) {
+        fill.record((double) batch.size() / Math.max(1, batchSize));
+        if (batch.size() == 1 || System.currentTimeMillis() < batchUnsupportedUntil) {
+            return sendSingles(batch);
+        }
+
+        List<Map<String, Object>> items = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            items.add(Map.of("id", i, "text", batch.get(i).text()));
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return webClient.post()
+                .uri(batchUrl)
+                .bodyValue(Map.of("items", items))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(Duration.ofMillis(timeoutMs))
+                .doOnNext(body -> {
+                    sample.stop(latency("batch"));
+                    Sentiment[] results = new Sentiment[batch.size()];
+                    for (JsonNode r : body.path("results")) {
+                        int id = r.path("id").asInt(-1);
+                        if (id >= 0 && id < results.length) {
+                            results[id] = new Sentiment(r.path("label").asText("neutral"), r.path("score").asDouble(0.0));
+                        }
+                    }
+                    for (int i = 0; i < results.length; i++) {
+                        batch.get(i).result().complete(results[i]);
+                    }
+                    texts("batch").increment(batch.size());
+                })
+                .then()
+                .onErrorResume(e -> {
+                    if (e instanceof WebClientResponseException wre && batchUnsupported(wre)) {
+                        log.warn("Sentiment batch endpoint unavailable ({}), falling back to single calls", wre.getStatusCode());
+                        batchUnsupportedUntil = System.currentTimeMillis() + UNSUPPORTED_RETRY.toMillis();
+                        return sendSingles(batch);
+                    }
+                    errors.increment();
+                    log.warn("Sentiment batch of {} failed: {}", batch.size(), e.getMessage());
+                    return Mono.empty();
+                })
+                // completes with null whatever the batch call did not answer, including an empty body
+                .doFinally(s -> batch.forEach(p -> p.result().complete(null)));
+    }
+
+    private Mono<Void> sendSingles(List<Pending> batch) {
+        return Flux.fromIterable(batch)
+                .flatMap(p -> {
+                    Timer.Sample sample = Timer.start(meterRegistry);
+                    return webClient.post()
+                            .uri(sentimentUrl)
+                            .bodyValue(Map.of("text", p.text()))
+                            .retrieve()
+                            .bodyToMono(JsonNode.class)
+                            .timeout(Duration.ofMillis(timeoutMs))
+                            .doOnNext(r -> {
+                                sample.stop(latency("single"));
+                                texts("single").increment();
+                                p.result().complete(new Sentiment(r.path("label").asText("neutral"), r.path("score").asDouble(0.0)));
+                            })
+                            .then()
+                            .onErrorResume(e -> {
+                                errors.increment();
+                                log.warn("Sentiment call failed, keeping neutral: {}", e.getMessage());
+                                return Mono.empty();
+                            })
+                            // completes with null when the call failed or returned nothing
+                            .doFinally(s -> p.result().complete(null));
+                }, Math.max(1, concurrency))
+                .then();
+    }
+
+    private static boolean batchUnsupported(WebClientResponseException e) {
+        return e.getStatusCode().value() == HttpStatus.NOT_FOUND.value()
+                || e.getStatusCode().value() == HttpStatus.METHOD_NOT_ALLOWED.value()
+                || e.getStatusCode().value() == HttpStatus.NOT_IMPLEMENTED.value();
+    }
+
+    private Counter texts(String mode) {
+        return Counter.builder("sentiment.client.texts").tag("mode", mode)
+                .description("Texts scored by the sentiment service").register(meterRegistry);
+    }
+
+    private Timer latency(String mode) {
+        return Timer.builder("sentiment.client.latency").tag("mode", mode)
+                .description("Sentiment service call latency").register(meterRegistry);
+    }
+}
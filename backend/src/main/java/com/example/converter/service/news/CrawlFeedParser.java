@@ -0,0 +1,164 @@
+package com.example.converter.service.news;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser for crawl-service responses ({"news": [{...}, ...], ...}).
+ * Bytes are pushed in as they arrive and every element of the top-level "news" array is handed to
+ * the sink as soon as its closing brace is read, so the response is never held as a tree or as
+ * nested maps. Fields ingestion does not store (pairs, entities, ...) are skipped.
+ * Not thread-safe; use one instance per response.
+ */
+@Slf4j
+final class CrawlFeedParser {
+
+    /** ISO local date-time with an optional offset; the offset is dropped, as the crawler emits UTC */
+    static final DateTimeFormatter PUBLISHED_AT = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+            .optionalStart().appendOffsetId().optionalEnd()
+            .toFormatter();
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final Consumer<CrawledNewsItem> sink;
+
+    private int depth;
+    private String rootField;
+    private boolean inNews;
+    private ItemBuilder item;
+    private String field;
+
+    CrawlFeedParser(JsonFactory factory, Consumer<CrawledNewsItem> sink) throws IOException {
+        this.parser = factory.createNonBlockingByteBufferParser();
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        this.sink = sink;
+    }
+
+    /**
+     * Parse the next chunk of the response; the buffer is fully consumed before this returns
+     */
+    void feed(ByteBuffer chunk) throws IOException {
+        feeder.feedInput(chunk);
+        drain();
+    }
+
+    /**
+     * Signal the end of the response and flush the last tokens
+     */
+    void finish() throws IOException {
+        feeder.endOfInput();
+        drain();
+        parser.close();
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> {
+                    depth++;
+                    if (depth == 2 && token == JsonToken.START_ARRAY && "news".equals(rootField)) {
+                        inNews = true;
+                    } else if (inNews && depth == 3 && token == JsonToken.START_OBJECT) {
+                        item = new ItemBuilder();
+                    }
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    if (item != null && depth == 3) {
+                        if (item.url != null) {
+                            sink.accept(item.build());
+                        }
+                        item = null;
+                    } else if (inNews && depth == 2) {
+                        inNews = false;
+                    }
+                    depth--;
+                }
+                case FIELD_NAME -> {
+                    if (depth == 1) {
+                        rootField = parser.currentName();
+                    } else if (item != null && depth == 3) {
+                        field = parser.currentName();
+                    }
+                }
+                default -> {
+                    // scalar; only direct fields of a news item matter
+                    if (item != null && depth == 3) {
+                        item.set(field, token, parser);
+                    }
+                }
+            }
+        }
+    }
+
+    static LocalDateTime parsePublishedAt(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return PUBLISHED_AT.parse(value, LocalDateTime::from);
+        } catch (DateTimeParseException e) {
+            log.warn("Failed to parse published_at '{}'", value);
+            return null;
+        }
+    }
+
+    private static final class ItemBuilder {
+        String url;
+        String title;
+        String content;
+        String category;
+        String summary;
+        String publishedAt;
+        String sentimentLabel;
+        Double sentimentScore;
+
+        void set(String field, JsonToken token, JsonParser parser) throws IOException {
+            if (field == null || token == JsonToken.VALUE_NULL) {
+                return;
+            }
+            switch (field) {
+                case "url" -> url = parser.getText();
+                case "title" -> title = parser.getText();
+                case "content" -> content = parser.getText();
+                case "category" -> category = parser.getText();
+                case "summary" -> summary = parser.getText();
+                case "published_at" -> publishedAt = parser.getText();
+                case "sentiment_label" -> sentimentLabel = parser.getText();
+                case "sentiment_score" -> sentimentScore = score(token, parser);
+                default -> {
+                }
+            }
+        }
+
+        private static Double score(JsonToken token, JsonParser parser) throws IOException {
+            if (token.isNumeric()) {
+                return parser.getDoubleValue();
+            }
+            try {
+                return Double.valueOf(parser.getText());
+            } catch (NumberFormatException e) {
+                return 0.0;
+            }
+        }
+
+        CrawledNewsItem build() {
+            // title and content are NOT NULL columns
+            String t = title != null ? title : "";
+            return new CrawledNewsItem(url, t, content != null ? content : t, category, summary != null ? summary : "",
+                    parsePublishedAt(publishedAt), sentimentLabel != null ? sentimentLabel : "neutral", sentimentScore);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.converter.service.news;
+
+import java.time.LocalDateTime;
+
+/**
+ * One article of a crawl-service response, holding only the fields ingestion stores.
+ * publishedAt is null when missing or unparseable; sentimentScore is null when the crawler did not score it.
+ */
+public record CrawledNewsItem(
+        String url,
+        String title,
+        String content,
+        String category,
+        String summary,
+        LocalDateTime publishedAt,
+        String sentimentLabel,
+        Double sentimentScore
+) {
+}
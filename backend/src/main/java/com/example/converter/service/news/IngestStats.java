@@ -0,0 +1,48 @@
+package com.example.converter.service.news;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live progress of a crawl ingestion; updated by the ingesting thread and safe to read from others.
+ * fetched = items parsed from the crawl response, duplicates = items dropped because their URL repeats
+ * within the response or is already stored, scored = items sent to the sentiment service, stored = rows inserted.
+ */
+public final class IngestStats {
+
+    private final AtomicInteger fetched = new AtomicInteger();
+    private final AtomicInteger duplicates = new AtomicInteger();
+    private final AtomicInteger scored = new AtomicInteger();
+    private final AtomicInteger stored = new AtomicInteger();
+
+    void addFetched(int n) {
+        fetched.addAndGet(n);
+    }
+
+    void addDuplicates(int n) {
+        duplicates.addAndGet(n);
+    }
+
+    void addScored(int n) {
+        scored.addAndGet(n);
+    }
+
+    void addStored(int n) {
+        stored.addAndGet(n);
+    }
+
+    public int fetched() {
+        return fetched.get();
+    }
+
+    public int duplicates() {
+        return duplicates.get();
+    }
+
+    public int scored() {
+        return scored.get();
+    }
+
+    public int stored() {
+        return stored.get();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.converter.service.news;
+
+import com.example.converter.dto.news.NewsArticleDTO;
+import com.example.converter.dto.news.NewsFeedPageResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * News feed reads, newest first.
+ * Pages are keyset-paginated on (published_at, id), so a deep page costs the same as the first and
+ * articles landing meanwhile never shift a page. Rows are read as a projection without the TEXT
+ * content column unless the caller asks for it. First pages are cached per (limit, includeContent)
+ * and evicted by {@link NewsIngestionService} whenever it stores new articles; the cache is local to
+ * the instance, so other instances catch up when their entries expire.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NewsFeedService {
+
+    public static final String CACHE = "newsFeed";
+
+    /** largest page size; also bounds the number of first-page cache entries */
+    public static final int MAX_LIMIT = 100;
+
+    private static final LocalDateTime MAX_TIME = LocalDate.of(9999, 1, 1).atStartOfDay();
+
+    private static final String COLUMNS =
+            "id, title, summary, url, category, sentiment_label, sentiment_score, published_at";
+
+    private static final String PAGE_SQL =
+            "SELECT " + COLUMNS + " FROM news_articles "
+                    + "WHERE (published_at, id) < (?, ?) "
+                    + "ORDER BY published_at DESC, id DESC LIMIT ?";
+
+    private static final String PAGE_WITH_CONTENT_SQL =
+            "SELECT " + COLUMNS + ", content FROM news_articles "
+                    + "WHERE (published_at, id) < (?, ?) "
+                    + "ORDER BY published_at DESC, id DESC LIMIT ?";
+
+    private static final String OFFSET_SQL =
+            "SELECT " + COLUMNS + " FROM news_articles "
+                    + "ORDER BY published_at DESC, id DESC LIMIT ? OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * First page of the feed, served from cache until new articles are stored
+     */
+    @Cacheable(value = CACHE, key = "#limit + '|' + #includeContent")
+    public NewsFeedPageResponse firstPage(int limit, boolean includeContent) {
+        return page(null, limit, includeContent);
+    }
+
+    /**
+     * One page of the feed, newest first
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param includeContent whether to read and return the article content
+     * @throws IllegalArgumentException if the cursor is malformed or limit is outside 1..MAX_LIMIT
+     */
+    public NewsFeedPageResponse page(String cursor, int limit, boolean includeContent) {
+        checkLimit(limit);
+        // without a cursor, (MAX_TIME, MAX_VALUE) admits every row
+        LocalDateTime beforeTime = MAX_TIME;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            Object[] decoded = decodeCursor(cursor);
+            beforeTime = (LocalDateTime) decoded[0];
+            beforeId = (Long) decoded[1];
+        }
+        // one extra row tells whether another page exists
+        List<NewsArticleDTO> rows = jdbcTemplate.query(includeContent ? PAGE_WITH_CONTENT_SQL : PAGE_SQL,
+                mapper(includeContent), Timestamp.valueOf(beforeTime), beforeId, limit + 1);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            NewsArticleDTO last = rows.get(limit - 1);
+            nextCursor = encodeCursor(last.getPublishedAt(), last.getId());
+        }
+        return new NewsFeedPageResponse(rows, nextCursor);
+    }
+
+    /**
+     * Offset page for the legacy page/size API; page 0 comes from the first-page cache
+     */
+    public List<NewsArticleDTO> offsetPage(int page, int size) {
+        checkLimit(size);
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        return jdbcTemplate.query(OFFSET_SQL, mapper(false), size, (long) page * size);
+    }
+
+    /**
+     * Drop cached first pages; called after new articles are stored
+     */
+    @CacheEvict(value = CACHE, allEntries = true)
+    public void invalidate() {
+        log.debug("News feed cache invalidated");
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    private static RowMapper<NewsArticleDTO> mapper(boolean includeContent) {
+        return (rs, i) -> {
+            Object score = rs.getObject(7);
+            return new NewsArticleDTO(
+                    rs.getLong(1),
+                    rs.getString(2),
+                    rs.getString(3),
+                    rs.getString(4),
+                    rs.getString(5),
+                    rs.getString(6),
+                    score != null ? ((Number) score).doubleValue() : null,
+                    rs.getTimestamp(8).toLocalDateTime(),
+                    includeContent ? rs.getString(9) : null);
+        };
+    }
+
+    private static String encodeCursor(LocalDateTime publishedAt, long id) {
+        String raw = publishedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new Object[]{LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1))};
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.example.converter.service.news;
+
+import com.example.converter.dto.news.NewsArticleDTO;
+import com.example.converter.entity.NewsArticle;
+import com.example.converter.repository.NewsArticleRepository;
+import com.example.converter.service.external.SentimentClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Ingestion of crawled news. {@link #ingestCrawl} streams a crawl-service response through
+ * {@link CrawlFeedParser} and ingests the items in chunks of batch-size as they are parsed; each chunk goes through
+ *   1. dedupe the chunk by URL, then drop URLs already stored with one IN query per chunk;
+ *   2. score the items the crawler did not score through the micro-batching {@link SentimentClient};
+ *   3. insert the new articles with multi-row INSERTs; ON CONFLICT (url) DO NOTHING covers concurrent
+ *      crawls and RETURNING id, url reports the rows actually stored. If any were, evict the cached first
+ *      pages of the news feed and add those rows to the search index and the rolling sentiment aggregates.
+ * A crawl of N items costs a handful of queries instead of 2N round-trips.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NewsIngestionService {
+
+    private static final String INSERT_ARTICLES =
+            "INSERT INTO news_articles (title, content, url, published_at, sentiment_score, sentiment_label, "
+            + "summary, category, source, created_at, updated_at) VALUES ";
+    private static final String ARTICLE_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_RETURNING = " ON CONFLICT (url) DO NOTHING RETURNING id, url";
+
+    /** PostgreSQL binds at most 65535 parameters per statement, 11 per article */
+    private static final int MAX_INSERT_ROWS = 65535 / 11;
+
+    private static final int URL_CHUNK = 1000;
+
+    private final NewsArticleRepository newsArticleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SentimentClient sentimentClient;
+    private final NewsFeedService newsFeedService;
+    private final NewsSearchIndex newsSearchIndex;
+    private final SentimentAggregates sentimentAggregates;
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.news.ingest.batch-size:500}")
+    private int batchSize;
+
+    /** longest the crawl response may stall between buffers */
+    @Value("${app.news.ingest.crawl-timeout-ms:30000}")
+    private long crawlTimeoutMs;
+
+    /** upper bound on scoring one chunk; articles not scored by then stay neutral */
+    @Value("${app.news.sentiment.ingest-timeout-ms:60000}")
+    private long scoreTimeoutMs;
+
+    /**
+     * Fetch a crawl-service response and store the articles that are not stored yet.
+     * The body is parsed as it arrives; at most batch-size parsed items are held at a time.
+     * @param uri crawl-service URI, including any query parameters
+     * @param source value for the source column
+     * @param stats progress counters, updated as chunks are ingested
+     * @return stats
+     */
+    public IngestStats ingestCrawl(String uri, String source, IngestStats stats) throws IOException {
+        int chunkSize = Math.max(1, batchSize);
+        List<CrawledNewsItem> chunk = new ArrayList<>(chunkSize);
+        CrawlFeedParser parser = new CrawlFeedParser(objectMapper.getFactory(), item -> {
+            chunk.add(item);
+            if (chunk.size() == chunkSize) {
+                ingest(chunk, source, stats);
+                chunk.clear();
+            }
+        });
+
+        // closing the stream cancels the response, so a parse or ingest failure midway does not leak the
+        // connection; buffers still queued are released by doOnDiscard
+        try (Stream<DataBuffer> body = webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .timeout(Duration.ofMillis(crawlTimeoutMs))
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                // small prefetch: the network read pauses while a chunk is being ingested
+                .toStream(4)) {
+            Iterator<DataBuffer> buffers = body.iterator();
+            while (buffers.hasNext()) {
+                DataBuffer buffer = buffers.next();
+                try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+                    while (it.hasNext()) {
+                        parser.feed(it.next());
+                    }
+                } finally {
+                    DataBufferUtils.release(buffer);
+                }
+            }
+        }
+        parser.finish();
+        if (!chunk.isEmpty()) {
+            ingest(chunk, source, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Store the crawled items that are not stored yet
+     * @param items parsed crawl-service news items
+     * @param source value for the source column
+     * @return number of articles inserted
+     */
+    public int ingest(List<CrawledNewsItem> items, String source) {
+        return ingest(items, source, new IngestStats());
+    }
+
+    private int ingest(List<CrawledNewsItem> items, String source, IngestStats stats) {
+        long start = System.nanoTime();
+        stats.addFetched(items.size());
+
+        Map<String, NewsArticle> byUrl = new LinkedHashMap<>();
+        for (CrawledNewsItem item : items) {
+            byUrl.putIfAbsent(item.url(), toArticle(item, source));
+        }
+        Set<String> existing = existingUrls(byUrl.keySet());
+        List<NewsArticle> fresh = new ArrayList<>(byUrl.size());
+        for (NewsArticle article : byUrl.values()) {
+            if (!existing.contains(article.getUrl())) {
+                fresh.add(article);
+            }
+        }
+        stats.addDuplicates(items.size() - fresh.size());
+        if (fresh.isEmpty()) {
+            log.info("News ingestion: {} items, nothing new", items.size());
+            return 0;
+        }
+
+        int scored = score(fresh);
+        stats.addScored(scored);
+        List<NewsArticleDTO> stored = insert(fresh);
+        int inserted = stored.size();
+        stats.addStored(inserted);
+        if (inserted > 0) {
+            newsFeedService.invalidate();
+            publish(stored);
+        }
+        log.info("News ingestion: {} items, {} new, {} scored, {} inserted in {} ms",
+                items.size(), fresh.size(), scored, inserted, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return inserted;
+    }
+
+    private Set<String> existingUrls(Set<String> urls) {
+        Set<String> existing = new HashSet<>();
+        List<String> all = new ArrayList<>(urls);
+        for (int i = 0; i < all.size(); i += URL_CHUNK) {
+            existing.addAll(newsArticleRepository.findExistingUrls(all.subList(i, Math.min(all.size(), i + URL_CHUNK))));
+        }
+        return existing;
+    }
+
+    /**
+     * Fill in sentiment for articles the crawler did not score; all texts are queued at once so the
+     * client can pack them into full batches. Articles the service could not score stay neutral.
+     * @return number of articles sent to the sentiment service
+     */
+    private int score(List<NewsArticle> articles) {
+        List<NewsArticle> unscored = articles.stream().filter(a -> a.getSentimentScore() == null).toList();
+        if (unscored.isEmpty()) {
+            return 0;
+        }
+        try {
+            Flux.fromIterable(unscored)
+                    .flatMap(article -> sentimentClient.score(article.getTitle() + ". " + article.getContent())
+                            .doOnNext(res -> {
+                                article.setSentimentLabel(res.label());
+                                article.setSentimentScore(res.score());
+                            }), Math.max(1, unscored.size()))
+                    .then()
+                    .block(Duration.ofMillis(scoreTimeoutMs));
+        } catch (RuntimeException e) {
+            // block() cancels the pending scores on timeout, so no result lands after this point
+            log.warn("Sentiment scoring of {} articles did not finish: {}", unscored.size(), e.getMessage());
+        }
+        for (NewsArticle article : unscored) {
+            if (article.getSentimentScore() == null) {
+                article.setSentimentScore(0.0);
+            }
+        }
+        return unscored.size();
+    }
+
+    /**
+     * Hand stored articles to the in-memory read models
+     */
+    private void publish(List<NewsArticleDTO> stored) {
+        try {
+            newsSearchIndex.add(stored);
+            sentimentAggregates.record(stored);
+        } catch (Exception e) {
+            log.warn("Failed to update news search index/sentiment aggregates: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Insert the articles, batch-size rows per statement
+     * @param articles articles with distinct URLs
+     * @return the articles this call stored, with their ids; rows skipped by ON CONFLICT are not included
+     */
+    private List<NewsArticleDTO> insert(List<NewsArticle> articles) {
+        Map<String, NewsArticle> byUrl = new HashMap<>();
+        for (NewsArticle article : articles) {
+            byUrl.put(article.getUrl(), article);
+        }
+        int rows = Math.max(1, Math.min(batchSize, MAX_INSERT_ROWS));
+        List<NewsArticleDTO> stored = new ArrayList<>(articles.size());
+        for (int i = 0; i < articles.size(); i += rows) {
+            List<NewsArticle> part = articles.subList(i, Math.min(articles.size(), i + rows));
+            String sql = INSERT_ARTICLES + String.join(", ", Collections.nCopies(part.size(), ARTICLE_ROW)) + INSERT_RETURNING;
+            stored.addAll(jdbcTemplate.query(sql, ps -> {
+                int p = 1;
+                for (NewsArticle a : part) {
+                    ps.setString(p++, a.getTitle());
+                    ps.setString(p++, a.getContent());
+                    ps.setString(p++, a.getUrl());
+                    ps.setTimestamp(p++, Timestamp.valueOf(a.getPublishedAt()));
+                    ps.setDouble(p++, a.getSentimentScore());
+                    ps.setString(p++, a.getSentimentLabel());
+                    ps.setString(p++, a.getSummary());
+                    ps.setString(p++, a.getCategory());
+                    ps.setString(p++, a.getSource());
+                    ps.setTimestamp(p++, Timestamp.valueOf(a.getCreatedAt()));
+                    ps.setTimestamp(p++, Timestamp.valueOf(a.getUpdatedAt()));
+                }
+            }, (rs, n) -> {
+                NewsArticle a = byUrl.get(rs.getString(2));
+                return new NewsArticleDTO(rs.getLong(1), a.getTitle(), a.getSummary(), a.getUrl(), a.getCategory(),
+                        a.getSentimentLabel(), a.getSentimentScore(), a.getPublishedAt(), null);
+            }));
+        }
+        return stored;
+    }
+
+    private static NewsArticle toArticle(CrawledNewsItem item, String source) {
+        NewsArticle article = new NewsArticle();
+        article.setUrl(item.url());
+        article.setTitle(item.title());
+        article.setContent(item.content());
+        article.setCategory(item.category());
+        article.setSummary(item.summary());
+        LocalDateTime now = LocalDateTime.now();
+        article.setPublishedAt(item.publishedAt() != null ? item.publishedAt() : now);
+        article.setSentimentLabel(item.sentimentLabel());
+        article.setSentimentScore(item.sentimentScore());
+        article.setSource(source);
+        article.setCreatedAt(now);
+        article.setUpdatedAt(now);
+        return article;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.converter.service.news;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs news refreshes off the request thread.
+ * Jobs run on a small fixed pool with a bounded queue; a refresh for a scope (all news, or one pair)
+ * that is already queued or running is not started again, the caller gets the in-flight job instead.
+ * A job still running after app.news.refresh.timeout-seconds is marked failed, its worker interrupted
+ * and its scope released, so a hung crawl cannot block later refreshes of that scope.
+ * Finished jobs stay pollable for app.news.refresh.retention-minutes.
+ */
+@Service
+@Slf4j
+public class NewsRefreshJobs {
+
+    private final NewsService newsService;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService watchdog;
+    private final Duration retention;
+    private final Duration timeout;
+    private final Map<String, RefreshJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, RefreshJob> inFlight = new ConcurrentHashMap<>();
+
+    public NewsRefreshJobs(NewsService newsService,
+                           @Value("${app.news.refresh.workers:2}") int workers,
+                           @Value("${app.news.refresh.queue-capacity:16}") int queueCapacity,
+                           @Value("${app.news.refresh.retention-minutes:30}") long retentionMinutes,
+                           @Value("${app.news.refresh.timeout-seconds:600}") long timeoutSeconds) {
+        this.newsService = newsService;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.timeout = Duration.ofSeconds(Math.max(1, timeoutSeconds));
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(Math.max(1, workers), Math.max(1, workers), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "news-refresh-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "news-refresh-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Scheduled(fixedDelay = 3600000)
+    public void scheduledRefresh() {
+        try {
+            submit(null, null);
+        } catch (RejectedExecutionException e) {
+            log.warn("Scheduled news refresh skipped: job queue is full");
+        }
+    }
+
+    /**
+     * Queue a refresh, or return the queued/running job for the same scope
+     * @param base base currency for a pair-focused refresh, null for the general crawl
+     * @param quote quote currency, null for the general crawl
+     * @return the job
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public RefreshJob submit(String base, String quote) {
+        evictFinished();
+        RefreshJob candidate = base == null || quote == null
+                ? new RefreshJob(null, null)
+                : new RefreshJob(base.trim().toUpperCase(), quote.trim().toUpperCase());
+        RefreshJob job = inFlight.computeIfAbsent(candidate.key(), k -> candidate);
+        if (job != candidate) {
+            log.debug("News refresh {} already in flight as job {}", job.key(), job.id());
+            return job;
+        }
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(job.key(), job);
+            jobs.remove(job.id());
+            throw e;
+        }
+        log.info("Queued news refresh {} as job {}", job.key(), job.id());
+        return job;
+    }
+
+    public Optional<RefreshJob> get(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(RefreshJob job) {
+        job.started();
+        Thread worker = Thread.currentThread();
+        ScheduledFuture<?> deadline = watchdog.schedule(() -> expire(job, worker), timeout.toMillis(), TimeUnit.MILLISECONDS);
+        String error = null;
+        try {
+            newsService.refresh(job.base(), job.quote(), job.stats());
+        } catch (Exception e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            if (!job.isDone()) {
+                log.error("Error during news fetch/analyze for {}: {}", job.key(), error);
+            }
+        } finally {
+            deadline.cancel(false);
+            job.finished(error);
+            inFlight.remove(job.key(), job);
+        }
+    }
+
+    /**
+     * Fail a job that overran its deadline and free its scope; the worker is interrupted so blocking
+     * calls that honour interrupts give up (the pool clears the flag before its next task)
+     */
+    private void expire(RefreshJob job, Thread worker) {
+        if (!job.finished("timed out after " + timeout.toSeconds() + " s")) {
+            return;
+        }
+        inFlight.remove(job.key(), job);
+        log.error("News refresh {} (job {}) timed out after {} s", job.key(), job.id(), timeout.toSeconds());
+        worker.interrupt();
+    }
+
+    private void evictFinished() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(j -> j.isDone() && j.finishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        watchdog.shutdownNow();
+        executor.shutdownNow();
+    }
+}
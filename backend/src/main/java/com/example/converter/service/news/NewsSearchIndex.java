@@ -0,0 +1,270 @@
+package com.example.converter.service.news;
+
+import com.example.converter.dto.news.NewsArticleDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over news titles and summaries.
+ * Each term maps to an ascending int[] of document numbers; currency, category and sentiment are
+ * indexed as namespaced terms, so every filter is a posting list. A query intersects its lists
+ * starting from the shortest (galloping through the longer ones), checks the date range against a
+ * parallel publishedAt array and keeps the newest hits in a bounded heap. Article content is not
+ * indexed or held.
+ * <p>
+ * The index is rebuilt from Postgres when the application is ready and updated by
+ * {@link NewsIngestionService} as articles are stored. Articles are only ever added, so document
+ * numbers grow with insertion and postings stay sorted by appending.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NewsSearchIndex {
+
+    public record SearchResult(List<NewsArticleDTO> items, int total) {
+    }
+
+    private static final int REBUILD_CHUNK = 5000;
+
+    private static final String REBUILD_SQL =
+            "SELECT id, title, summary, url, category, sentiment_label, sentiment_score, published_at "
+                    + "FROM news_articles WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Index index = new Index();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        Index fresh = new Index();
+        long lastId = load(fresh, 0L);
+        lock.writeLock().lock();
+        try {
+            // pick up articles stored while the bulk load ran, then swap
+            load(fresh, lastId);
+            index = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("News search index built: {} articles, {} terms in {} ms",
+                fresh.size, fresh.postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Index stored articles; articles already indexed are ignored
+     */
+    public void add(Collection<NewsArticleDTO> articles) {
+        lock.writeLock().lock();
+        try {
+            for (NewsArticleDTO article : articles) {
+                index.add(article);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Articles matching every query term and every given filter, newest first
+     * @param query free text; every term must occur in the title or summary
+     * @param currency ISO code mentioned in the article, null for any
+     * @param category exact category (case-insensitive), null for any
+     * @param sentiment sentiment label, null for any
+     * @param from earliest publishedAt (inclusive), null for unbounded
+     * @param to latest publishedAt (exclusive), null for unbounded
+     */
+    public SearchResult search(String query, String currency, String category, String sentiment,
+                               LocalDateTime from, LocalDateTime to, int limit) {
+        List<String> keys = new ArrayList<>(NewsText.terms(query));
+        if (currency != null && !currency.isBlank()) {
+            keys.add(currencyKey(currency.trim().toUpperCase(Locale.ROOT)));
+        }
+        if (category != null && !category.isBlank()) {
+            keys.add(categoryKey(category));
+        }
+        if (sentiment != null && !sentiment.isBlank()) {
+            keys.add(sentimentKey(sentiment));
+        }
+        long fromSec = from != null ? from.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+        long toSec = to != null ? to.toEpochSecond(ZoneOffset.UTC) : Long.MAX_VALUE;
+
+        lock.readLock().lock();
+        try {
+            return index.search(keys, fromSec, toSec, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return index.size;
+    }
+
+    private long load(Index target, long afterId) {
+        long lastId = afterId;
+        while (true) {
+            List<NewsArticleDTO> rows = jdbcTemplate.query(REBUILD_SQL, (rs, i) -> {
+                Object score = rs.getObject(7);
+                return new NewsArticleDTO(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getString(6), score != null ? ((Number) score).doubleValue() : null,
+                        rs.getTimestamp(8).toLocalDateTime(), null);
+            }, lastId, REBUILD_CHUNK);
+            for (NewsArticleDTO row : rows) {
+                target.add(row);
+            }
+            if (rows.isEmpty()) {
+                return lastId;
+            }
+            lastId = rows.get(rows.size() - 1).getId();
+            if (rows.size() < REBUILD_CHUNK) {
+                return lastId;
+            }
+        }
+    }
+
+    private static String currencyKey(String code) {
+        return "$cur:" + code;
+    }
+
+    private static String categoryKey(String category) {
+        return "$cat:" + category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String sentimentKey(String label) {
+        return "$sent:" + label.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Growable ascending int list */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void append(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        /** first position >= from holding a doc >= target, or size */
+        int advance(int from, int target) {
+            int step = 1;
+            int hi = from;
+            while (hi < size && docs[hi] < target) {
+                from = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            int pos = Arrays.binarySearch(docs, from, Math.min(hi + 1, size), target);
+            return pos >= 0 ? pos : -pos - 1;
+        }
+    }
+
+    /** Not thread-safe; guarded by the outer lock once published */
+    private static final class Index {
+        final Map<String, Postings> postings = new HashMap<>();
+        final Map<Long, Integer> byId = new HashMap<>();
+        NewsArticleDTO[] docs = new NewsArticleDTO[1024];
+        long[] publishedAt = new long[1024];
+        int size;
+
+        void add(NewsArticleDTO article) {
+            if (article.getId() == null || byId.containsKey(article.getId())) {
+                return;
+            }
+            int doc = size++;
+            if (doc == docs.length) {
+                docs = Arrays.copyOf(docs, doc * 2);
+                publishedAt = Arrays.copyOf(publishedAt, doc * 2);
+            }
+            docs[doc] = article;
+            publishedAt[doc] = article.getPublishedAt() != null ? article.getPublishedAt().toEpochSecond(ZoneOffset.UTC) : 0L;
+            byId.put(article.getId(), doc);
+
+            List<String> terms = NewsText.terms(article.getTitle());
+            terms.addAll(NewsText.terms(article.getSummary()));
+            for (String term : terms) {
+                post(term, doc);
+            }
+            for (String code : NewsText.currencies(terms, article.getTitle(), article.getSummary())) {
+                post(currencyKey(code), doc);
+            }
+            if (article.getCategory() != null) {
+                post(categoryKey(article.getCategory()), doc);
+            }
+            if (article.getSentimentLabel() != null) {
+                post(sentimentKey(article.getSentimentLabel()), doc);
+            }
+        }
+
+        private void post(String key, int doc) {
+            postings.computeIfAbsent(key, k -> new Postings()).append(doc);
+        }
+
+        SearchResult search(List<String> keys, long fromSec, long toSec, int limit) {
+            Postings[] lists = new Postings[keys.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(keys.get(i));
+                if (lists[i] == null) {
+                    return new SearchResult(List.of(), 0);
+                }
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+            // min-heap on publishedAt (then doc) holding the newest `limit` hits
+            PriorityQueue<Integer> newest = new PriorityQueue<>(limit + 1, (a, b) -> publishedAt[a] != publishedAt[b]
+                    ? Long.compare(publishedAt[a], publishedAt[b]) : Integer.compare(a, b));
+            int total = 0;
+            int[] cursors = new int[lists.length];
+            int candidates = lists.length > 0 ? lists[0].size : size;
+            outer:
+            for (int c = 0; c < candidates; c++) {
+                int doc = lists.length > 0 ? lists[0].docs[c] : c;
+                for (int l = 1; l < lists.length; l++) {
+                    cursors[l] = lists[l].advance(cursors[l], doc);
+                    if (cursors[l] == lists[l].size) {
+                        break outer;
+                    }
+                    if (lists[l].docs[cursors[l]] != doc) {
+                        continue outer;
+                    }
+                }
+                if (publishedAt[doc] < fromSec || publishedAt[doc] >= toSec) {
+                    continue;
+                }
+                total++;
+                newest.add(doc);
+                if (newest.size() > limit) {
+                    newest.poll();
+                }
+            }
+
+            NewsArticleDTO[] items = new NewsArticleDTO[newest.size()];
+            for (int i = items.length - 1; i >= 0; i--) {
+                items[i] = docs[newest.poll()];
+            }
+            return new SearchResult(Arrays.asList(items), total);
+        }
+    }
+}
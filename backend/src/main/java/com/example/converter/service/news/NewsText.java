@@ -0,0 +1,130 @@
+package com.example.converter.service.news;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Text analysis shared by the news search index and sentiment aggregates.
+ * Terms are lower-cased with diacritics stripped (so "tỷ giá" matches "ty gia"); currencies are
+ * ISO codes written in upper case in the text, plus a few common currency names.
+ */
+final class NewsText {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Set<String> ISO_CODES = Currency.getAvailableCurrencies().stream()
+            .map(Currency::getCurrencyCode)
+            .collect(Collectors.toUnmodifiableSet());
+
+    /** ISO codes that are also common upper-case words in headlines */
+    private static final Set<String> AMBIGUOUS_CODES = Set.of("ALL", "TOP", "CUP", "MOP", "BOB", "PEN", "SOS", "TRY");
+
+    private static final Map<String, String> CURRENCY_NAMES = Map.ofEntries(
+            Map.entry("dollar", "USD"), Map.entry("dollars", "USD"), Map.entry("greenback", "USD"),
+            Map.entry("euro", "EUR"), Map.entry("euros", "EUR"),
+            Map.entry("yen", "JPY"),
+            Map.entry("sterling", "GBP"),
+            Map.entry("yuan", "CNY"), Map.entry("renminbi", "CNY"),
+            Map.entry("dong", "VND"),
+            Map.entry("franc", "CHF"),
+            Map.entry("won", "KRW"),
+            Map.entry("rupee", "INR"));
+
+    private NewsText() {
+    }
+
+    /**
+     * Search terms of a text: lower case, diacritics stripped, split on anything but letters and digits,
+     * single characters dropped
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                if (i - start > 1) {
+                    terms.add(folded.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Currencies mentioned in the texts, in order of first mention
+     */
+    static Set<String> currencies(String... texts) {
+        List<String> terms = new ArrayList<>();
+        for (String text : texts) {
+            terms.addAll(terms(text));
+        }
+        return currencies(terms, texts);
+    }
+
+    /**
+     * Variant of {@link #currencies(String...)} for callers that already hold the terms of the texts
+     */
+    static Set<String> currencies(List<String> terms, String... texts) {
+        Set<String> found = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text != null) {
+                upperCaseCodes(text, found);
+            }
+        }
+        for (String term : terms) {
+            String code = CURRENCY_NAMES.get(term);
+            if (code != null) {
+                found.add(code);
+            }
+        }
+        return found;
+    }
+
+    /** adds every standalone three-letter upper-case ISO code of text */
+    private static void upperCaseCodes(String text, Set<String> found) {
+        int n = text.length();
+        for (int i = 0; i + 3 <= n; i++) {
+            if (isUpper(text.charAt(i)) && isUpper(text.charAt(i + 1)) && isUpper(text.charAt(i + 2))
+                    && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))
+                    && (i + 3 == n || !Character.isLetterOrDigit(text.charAt(i + 3)))) {
+                String code = text.substring(i, i + 3);
+                if (ISO_CODES.contains(code) && !AMBIGUOUS_CODES.contains(code)) {
+                    found.add(code);
+                }
+                i += 2;
+            }
+        }
+    }
+
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    static String fold(String text) {
+        boolean ascii = true;
+        for (int i = 0; i < text.length() && ascii; i++) {
+            ascii = text.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.replace('đ', 'd').replace('Đ', 'D').toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.converter.service.news;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One news refresh run, general (base and quote null) or pair-focused.
+ * Status and timestamps are written by the submitting thread and the worker; readers poll them.
+ */
+public final class RefreshJob {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String key;
+    private final String base;
+    private final String quote;
+    private final IngestStats stats = new IngestStats();
+    private final Instant submittedAt = Instant.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    RefreshJob(String base, String quote) {
+        this.base = base;
+        this.quote = quote;
+        this.key = base == null ? "ALL" : base + "/" + quote;
+    }
+
+    void started() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    /**
+     * @return false if the job had already finished (e.g. timed out), in which case nothing changes
+     */
+    synchronized boolean finished(String error) {
+        if (isDone()) {
+            return false;
+        }
+        this.error = error;
+        finishedAt = Instant.now();
+        status = error == null ? Status.SUCCEEDED : Status.FAILED;
+        return true;
+    }
+
+    public boolean isDone() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /** dedupe key: ALL or BASE/QUOTE */
+    public String key() {
+        return key;
+    }
+
+    public String base() {
+        return base;
+    }
+
+    public String quote() {
+        return quote;
+    }
+
+    public IngestStats stats() {
+        return stats;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public Instant submittedAt() {
+        return submittedAt;
+    }
+
+    public Instant startedAt() {
+        return startedAt;
+    }
+
+    public Instant finishedAt() {
+        return finishedAt;
+    }
+
+    public String error() {
+        return error;
+    }
+}
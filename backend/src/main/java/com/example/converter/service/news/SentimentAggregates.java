@@ -0,0 +1,247 @@
+package com.example.converter.service.news;
+
+import com.example.converter.dto.news.NewsArticleDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling news sentiment per currency and per currency pair, kept in memory.
+ * For each of the 1h, 24h and 7d windows a key reports the article count and mean score (from
+ * minute buckets for 1h, hour buckets for 24h and 7d) and an exponentially decayed mean whose time
+ * constant is the window length, together with its decayed weight (how much recent evidence backs it).
+ * Articles are placed by publishedAt (UTC); currencies come from the title and summary, pairs are
+ * unordered (USD/EUR and EUR/USD are one key).
+ * <p>
+ * Updated by {@link NewsIngestionService} as articles are stored and warmed from the last 7 days
+ * of news_articles when the application is ready; article ids already counted are skipped, so the
+ * two can overlap.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SentimentAggregates {
+
+    public enum Window {
+        H1("1h", Duration.ofHours(1)),
+        H24("24h", Duration.ofHours(24)),
+        D7("7d", Duration.ofDays(7));
+
+        private final String label;
+        private final long seconds;
+
+        Window(String label, Duration length) {
+            this.label = label;
+            this.seconds = length.toSeconds();
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    /** mean and decayed are null when nothing was ever recorded for the key */
+    public record WindowStats(long count, Double mean, Double decayed, double weight) {
+    }
+
+    public record Snapshot(String key, Instant asOf, Map<String, WindowStats> windows) {
+    }
+
+    /** at most this many currencies of one article feed pair aggregates (6 pairs) */
+    private static final int MAX_PAIR_CURRENCIES = 4;
+    private static final long HORIZON_SECONDS = Window.D7.seconds;
+
+    private static final String WARM_SQL =
+            "SELECT id, title, summary, sentiment_score, published_at FROM news_articles "
+                    + "WHERE published_at >= ? AND sentiment_score IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Rolling> byKey = new ConcurrentHashMap<>();
+    /** article id -> publishedAt epoch second, for articles inside the 7d horizon */
+    private final Map<Long, Long> counted = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        LocalDateTime since = LocalDateTime.now(ZoneOffset.UTC).minusSeconds(HORIZON_SECONDS);
+        List<NewsArticleDTO> rows = new ArrayList<>();
+        jdbcTemplate.query(WARM_SQL, rs -> {
+            rows.add(new NewsArticleDTO(rs.getLong(1), rs.getString(2), rs.getString(3), null, null, null,
+                    rs.getDouble(4), rs.getTimestamp(5).toLocalDateTime(), null));
+        }, Timestamp.valueOf(since));
+        record(rows);
+        log.info("Sentiment aggregates warmed from {} articles ({} keys) in {} ms",
+                rows.size(), byKey.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Count stored articles; articles without a score or id, outside the 7d horizon or already counted are skipped
+     */
+    public void record(Collection<NewsArticleDTO> articles) {
+        long now = Instant.now().getEpochSecond();
+        for (NewsArticleDTO article : articles) {
+            if (article.getId() == null || article.getSentimentScore() == null || article.getPublishedAt() == null) {
+                continue;
+            }
+            // crawler timestamps are UTC; clamp clock skew into the present
+            long t = Math.min(now, article.getPublishedAt().toEpochSecond(ZoneOffset.UTC));
+            if (now - t >= HORIZON_SECONDS || counted.putIfAbsent(article.getId(), t) != null) {
+                continue;
+            }
+            double score = article.getSentimentScore();
+            List<String> currencies = new ArrayList<>(NewsText.currencies(article.getTitle(), article.getSummary()));
+            for (String code : currencies) {
+                rolling(code).add(t, score);
+            }
+            int n = Math.min(currencies.size(), MAX_PAIR_CURRENCIES);
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    rolling(pairKey(currencies.get(i), currencies.get(j))).add(t, score);
+                }
+            }
+        }
+    }
+
+    public Snapshot currency(String code) {
+        return snapshot(code.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public Snapshot pair(String base, String quote) {
+        return snapshot(pairKey(base.trim().toUpperCase(Locale.ROOT), quote.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    /** drop dedupe entries of articles that left the 7d horizon */
+    @Scheduled(fixedDelay = 3600000)
+    public void prune() {
+        long cutoff = Instant.now().getEpochSecond() - HORIZON_SECONDS;
+        counted.values().removeIf(t -> t < cutoff);
+    }
+
+    private Snapshot snapshot(String key) {
+        Instant asOf = Instant.now();
+        Rolling rolling = byKey.get(key);
+        Map<String, WindowStats> windows = new LinkedHashMap<>();
+        for (Window w : Window.values()) {
+            windows.put(w.label(), rolling != null ? rolling.stats(w, asOf.getEpochSecond()) : new WindowStats(0, null, null, 0.0));
+        }
+        return new Snapshot(key, asOf, windows);
+    }
+
+    private Rolling rolling(String key) {
+        return byKey.computeIfAbsent(key, k -> new Rolling());
+    }
+
+    private static String pairKey(String a, String b) {
+        return a.compareTo(b) <= 0 ? a + "/" + b : b + "/" + a;
+    }
+
+    /**
+     * Bucketed counts/sums plus one exponentially weighted accumulator per window.
+     * The weighted sums are kept relative to the newest article seen (ewAt), so an article arriving
+     * out of order just gets a smaller weight and no periodic decay pass is needed.
+     */
+    private static final class Rolling {
+        private static final int MINUTES = 60;
+        private static final int HOURS = 168;
+
+        private final int[] minuteCount = new int[MINUTES];
+        private final double[] minuteSum = new double[MINUTES];
+        private final long[] minuteStamp = new long[MINUTES];
+        private final int[] hourCount = new int[HOURS];
+        private final double[] hourSum = new double[HOURS];
+        private final long[] hourStamp = new long[HOURS];
+        private final double[] ewSum = new double[Window.values().length];
+        private final double[] ewWeight = new double[Window.values().length];
+        private long ewAt = Long.MIN_VALUE;
+
+        Rolling() {
+            Arrays.fill(minuteStamp, Long.MIN_VALUE);
+            Arrays.fill(hourStamp, Long.MIN_VALUE);
+        }
+
+        synchronized void add(long t, double score) {
+            long minute = Math.floorDiv(t, 60);
+            int ms = (int) Math.floorMod(minute, MINUTES);
+            if (minuteStamp[ms] < minute) {
+                minuteStamp[ms] = minute;
+                minuteCount[ms] = 0;
+                minuteSum[ms] = 0;
+            }
+            if (minuteStamp[ms] == minute) {
+                minuteCount[ms]++;
+                minuteSum[ms] += score;
+            }
+            long hour = Math.floorDiv(t, 3600);
+            int hs = (int) Math.floorMod(hour, HOURS);
+            if (hourStamp[hs] < hour) {
+                hourStamp[hs] = hour;
+                hourCount[hs] = 0;
+                hourSum[hs] = 0;
+            }
+            if (hourStamp[hs] == hour) {
+                hourCount[hs]++;
+                hourSum[hs] += score;
+            }
+
+            Window[] windows = Window.values();
+            if (t > ewAt) {
+                for (int i = 0; i < windows.length; i++) {
+                    double decay = ewAt == Long.MIN_VALUE ? 0.0 : Math.exp(-(double) (t - ewAt) / windows[i].seconds);
+                    ewSum[i] *= decay;
+                    ewWeight[i] *= decay;
+                }
+                ewAt = t;
+            }
+            for (int i = 0; i < windows.length; i++) {
+                double w = Math.exp(-(double) (ewAt - t) / windows[i].seconds);
+                ewSum[i] += w * score;
+                ewWeight[i] += w;
+            }
+        }
+
+        synchronized WindowStats stats(Window window, long now) {
+            long count = 0;
+            double sum = 0;
+            if (window == Window.H1) {
+                long minute = Math.floorDiv(now, 60);
+                for (int i = 0; i < MINUTES; i++) {
+                    if (minuteStamp[i] > minute - MINUTES && minuteStamp[i] <= minute) {
+                        count += minuteCount[i];
+                        sum += minuteSum[i];
+                    }
+                }
+            } else {
+                long hour = Math.floorDiv(now, 3600);
+                long span = window.seconds / 3600;
+                for (int i = 0; i < HOURS; i++) {
+                    if (hourStamp[i] > hour - span && hourStamp[i] <= hour) {
+                        count += hourCount[i];
+                        sum += hourSum[i];
+                    }
+                }
+            }
+            int i = window.ordinal();
+            Double decayed = ewWeight[i] > 0 ? ewSum[i] / ewWeight[i] : null;
+            double weight = ewAt == Long.MIN_VALUE ? 0.0 : ewWeight[i] * Math.exp(-(double) Math.max(0, now - ewAt) / window.seconds);
+            return new WindowStats(count, count > 0 ? sum / count : null, decayed, weight);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.converter.service.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line-by-line conversion pipe shared by the streaming unit and currency endpoints.
+ * Rows are read, converted and written one at a time, so memory stays flat whatever the input
+ * size; the writer is flushed at least once a second so the client sees results while it is
+ * still uploading. A bad row, or any runtime failure converting it, produces an error row and the
+ * stream carries on.
+ * <p>
+ * Input rows: CSV {@code value} (pair from the request defaults) or {@code value,from,to}, with an
+ * optional header line; NDJSON objects using the field names passed in (e.g. value/fromUnit/toUnit).
+ * Output rows echo the input and add the converted value, or an error.
+ * <p>
+ * Throughput is exported as the conversion.stream.rows counter (rate per second) and logged
+ * every second while a stream runs.
+ */
+@Component
+@Slf4j
+public class ConversionStreams {
+
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final DistributionSummary throughput;
+
+    public ConversionStreams(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.throughput = DistributionSummary.builder("conversion.stream.throughput")
+                .description("Rows per second of completed conversion streams")
+                .baseUnit("rows/s")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pipe rows from in to out through the converter until end of input
+     * @param kind metric/log tag, e.g. "unit" or "currency"
+     * @param format input and output format
+     * @param fields field names: value, from, to, converted result
+     * @param defaultFrom pair source used when a row carries no pair (may be null)
+     * @param defaultTo pair target used when a row carries no pair (may be null)
+     * @param converter converts one row
+     * @return row and error counts with elapsed time
+     */
+    public StreamStats pipe(String kind, StreamFormat format, BufferedReader in, Writer out, String[] fields,
+                            String defaultFrom, String defaultTo, RowConverter converter) throws IOException {
+        Counter rowsCounter = Counter.builder("conversion.stream.rows").tag("kind", kind)
+                .description("Rows converted by streaming endpoints").register(meterRegistry);
+        Counter errorsCounter = Counter.builder("conversion.stream.errors").tag("kind", kind)
+                .description("Rows rejected by streaming endpoints").register(meterRegistry);
+        RowSink sink = format == StreamFormat.CSV
+                ? new CsvSink(out, fields)
+                : new NdjsonSink(objectMapper.getFactory().createGenerator(out), fields);
+
+        long start = System.nanoTime();
+        long nextTick = start + TICK_NANOS;
+        long rows = 0;
+        long errors = 0;
+        long rowsAtTick = 0;
+        long lineNo = 0;
+        boolean firstRow = true;
+        Row row = new Row();
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            row.reset(defaultFrom, defaultTo);
+            try {
+                if (format == StreamFormat.CSV) {
+                    if (!parseCsv(line, row)) {
+                        if (firstRow) {
+                            firstRow = false;
+                            continue; // header line
+                        }
+                        throw new IllegalArgumentException("Value '" + row.valueText + "' is not a number");
+                    }
+                } else {
+                    parseJson(line, fields, row);
+                }
+                firstRow = false;
+                if (row.from == null || row.to == null) {
+                    throw new IllegalArgumentException("Row has no " + fields[1] + "/" + fields[2] + " and no default pair was given");
+                }
+                double converted = converter.convert(row.value, row.from, row.to);
+                sink.row(row.value, row.from, row.to, converted);
+                rows++;
+                rowsCounter.increment();
+            } catch (RuntimeException | JsonProcessingException e) {
+                // the response is already partly written, so any row failure (a rate lookup included)
+                // becomes an error row rather than aborting the stream
+                firstRow = false;
+                errors++;
+                errorsCounter.increment();
+                sink.error(lineNo, row.valueText, row.from, row.to, errorMessage(e));
+            }
+
+            long now = System.nanoTime();
+            if (now >= nextTick) {
+                sink.flush();
+                log.info("Streaming {} conversion: {} rows, {} rows/s, {} errors", kind, rows, rows - rowsAtTick, errors);
+                rowsAtTick = rows;
+                nextTick = now + TICK_NANOS;
+            }
+        }
+        sink.finish();
+
+        StreamStats stats = new StreamStats(rows, errors, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        throughput.record(stats.rowsPerSecond());
+        log.info("Streaming {} conversion finished: {} rows, {} errors in {} ms ({} rows/s)",
+                kind, stats.rows(), stats.errors(), stats.elapsedMs(), Math.round(stats.rowsPerSecond()));
+        return stats;
+    }
+
+    private static String errorMessage(Exception e) {
+        if (e instanceof JsonProcessingException json) {
+            return "Invalid JSON: " + json.getOriginalMessage();
+        }
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    /**
+     * Parse a CSV row ("value" or "value,from,to")
+     * @return false if the value column is not a number (used to skip a header line)
+     */
+    private static boolean parseCsv(String line, Row row) {
+        int c1 = line.indexOf(',');
+        String valueText = (c1 < 0 ? line : line.substring(0, c1)).trim();
+        row.valueText = valueText;
+        if (c1 >= 0) {
+            int c2 = line.indexOf(',', c1 + 1);
+            if (c2 < 0) {
+                throw new IllegalArgumentException("Expected value,from,to");
+            }
+            row.from = line.substring(c1 + 1, c2).trim();
+            row.to = line.substring(c2 + 1).trim();
+        }
+        try {
+            row.value = Double.parseDouble(valueText);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void parseJson(String line, String[] fields, Row row) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        JsonNode value = node.get(fields[0]);
+        if (node.hasNonNull(fields[1])) {
+            row.from = node.get(fields[1]).asText();
+        }
+        if (node.hasNonNull(fields[2])) {
+            row.to = node.get(fields[2]).asText();
+        }
+        if (value == null || !value.isNumber()) {
+            throw new IllegalArgumentException("Field '" + fields[0] + "' must be a number");
+        }
+        row.value = value.asDouble();
+        row.valueText = value.asText();
+    }
+
+    private static final class Row {
+        double value;
+        String valueText;
+        String from;
+        String to;
+
+        void reset(String defaultFrom, String defaultTo) {
+            value = Double.NaN;
+            valueText = null;
+            from = defaultFrom;
+            to = defaultTo;
+        }
+    }
+
+    private interface RowSink {
+        void row(double value, String from, String to, double converted) throws IOException;
+
+        void error(long line, String valueText, String from, String to, String message) throws IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static final class CsvSink implements RowSink {
+        private final Writer out;
+        private boolean started;
+        private final String header;
+
+        CsvSink(Writer out, String[] fields) {
+            this.out = out;
+            this.header = String.join(",", fields) + ",error\n";
+        }
+
+        private void start() throws IOException {
+            if (!started) {
+                out.write(header);
+                started = true;
+            }
+        }
+
+        @Override
+        public void row(double value, String from, String to, double converted) throws IOException {
+            start();
+            out.write(Double.toString(value));
+            out.write(',');
+            out.write(from);
+            out.write(',');
+            out.write(to);
+            out.write(',');
+            out.write(Double.toString(converted));
+            out.write(",\n");
+        }
+
+        @Override
+        public void error(long line, String valueText, String from, String to, String message) throws IOException {
+            start();
+            out.write(valueText != null ? valueText : "");
+            out.write(',');
+            out.write(from != null ? from : "");
+            out.write(',');
+            out.write(to != null ? to : "");
+            out.write(",,\"line ");
+            out.write(Long.toString(line));
+            out.write(": ");
+            out.write(message != null ? message.replace("\"", "\"\"").replace('\n', ' ') : "invalid row");
+            out.write("\"\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            start();
+            out.flush();
+        }
+    }
+
+    private static final class NdjsonSink implements RowSink {
+        private final JsonGenerator json;
+        private final String[] fields;
+
+        NdjsonSink(JsonGenerator json, String[] fields) {
+            this.json = json;
+            this.fields = fields;
+            json.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void row(double value, String from, String to, double converted) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField(fields[0], value);
+            json.writeStringField(fields[1], from);
+            json.writeStringField(fields[2], to);
+            json.writeNumberField(fields[3], converted);
+            json.writeEndObject();
+        }
+
+        @Override
+        public void error(long line, String valueText, String from, String to, String message) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("line", line);
+            if (from != null) {
+                json.writeStringField(fields[1], from);
+            }
+            if (to != null) {
+                json.writeStringField(fields[2], to);
+            }
+            json.writeStringField("error", message != null ? message : "invalid row");
+            json.writeEndObject();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.writeRaw('\n');
+            json.flush();
+        }
+    }
+}
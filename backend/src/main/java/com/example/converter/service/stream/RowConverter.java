@@ -0,0 +1,11 @@
+package com.example.converter.service.stream;
+
+/**
+ * Converts one streamed row. Throw IllegalArgumentException to report a row error
+ * without stopping the stream; other runtime exceptions are reported the same way.
+ */
+@FunctionalInterface
+public interface RowConverter {
+
+    double convert(double value, String from, String to);
+}
@@ -0,0 +1,37 @@
+package com.example.converter.service.stream;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Line formats accepted and produced by the streaming conversion endpoints.
+ */
+public enum StreamFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    StreamFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Pick the format from a request Content-Type
+     * @throws IllegalArgumentException for anything other than CSV or NDJSON
+     */
+    public static StreamFormat of(String contentType) {
+        if (contentType != null) {
+            MediaType type = MediaType.parseMediaType(contentType);
+            for (StreamFormat f : values()) {
+                if (type.isCompatibleWith(MediaType.parseMediaType(f.mediaType))) {
+                    return f;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported stream content type: " + contentType);
+    }
+}
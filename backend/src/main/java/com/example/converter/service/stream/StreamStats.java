@@ -0,0 +1,11 @@
+package com.example.converter.service.stream;
+
+/**
+ * Outcome of one streamed conversion.
+ */
+public record StreamStats(long rows, long errors, long elapsedMs) {
+
+    public double rowsPerSecond() {
+        return elapsedMs > 0 ? rows * 1000.0 / elapsedMs : rows;
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.converter.service.unit;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiled unit catalogue used by UnitConversionService.
+ * Every unit name and alias is interned to an int id once at startup. Each category keeps a dense
+ * scale/offset matrix so that any pair converts as {@code value * scale + offset} in O(1),
+ * which also covers affine scales such as temperature.
+ */
+@Component
+public class UnitRegistry {
+
+    public static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final Map<String, String[]> canonicalUnits = new LinkedHashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    private int[] categoryOf = new int[0];
+    private int[] slotOf = new int[0];
+    private double[][][] scale = new double[0][][];
+    private double[][][] offset = new double[0][][];
+
+    public UnitRegistry() {
+        // Length (base: meter)
+        category("length",
+                unit(1.0, "meter", "m"),
+                unit(0.01, "centimeter", "cm"),
+                unit(0.001, "millimeter", "mm"),
+                unit(1000.0, "kilometer", "km"),
+                unit(0.0254, "inch", "in"),
+                unit(0.3048, "foot", "ft"),
+                unit(0.9144, "yard", "yd"),
+                unit(1609.344, "mile", "mi"),
+                unit(1852.0, "nautical_mile", "nmi"));
+
+        // Weight (base: kilogram)
+        category("weight",
+                unit(1.0, "kilogram", "kg"),
+                unit(0.001, "gram", "g"),
+                unit(0.000001, "milligram", "mg"),
+                unit(0.453592, "pound", "lb"),
+                unit(0.0283495, "ounce", "oz"),
+                unit(1000.0, "ton", "t"),
+                unit(6.35029, "stone", "st"));
+
+        // Volume (base: liter)
+        category("volume",
+                unit(1.0, "liter", "l"),
+                unit(0.001, "milliliter", "ml"),
+                unit(1000.0, "cubic_meter", "m3"),
+                unit(0.001, "cubic_centimeter", "cm3"),
+                unit(3.78541, "gallon", "gal"),
+                unit(0.946353, "quart", "qt"),
+                unit(0.473176, "pint", "pt"),
+                unit(0.236588, "cup"),
+                unit(0.0295735, "fluid_ounce", "fl_oz"));
+
+        // Area (base: square meter)
+        category("area",
+                unit(1.0, "square_meter", "m2"),
+                unit(0.0001, "square_centimeter", "cm2"),
+                unit(0.000001, "square_millimeter", "mm2"),
+                unit(1000000.0, "square_kilometer", "km2"),
+                unit(0.00064516, "square_inch", "in2"),
+                unit(0.092903, "square_foot", "ft2"),
+                unit(0.836127, "square_yard", "yd2"),
+                unit(4046.86, "acre"),
+                unit(10000.0, "hectare", "ha"));
+
+        // Speed (base: m/s)
+        category("speed",
+                unit(1.0, "meter_per_second", "mps"),
+                unit(0.277778, "kilometer_per_hour", "kmh"),
+                unit(0.44704, "mile_per_hour", "mph"),
+                unit(0.3048, "foot_per_second", "fps"),
+                unit(0.514444, "knot", "kn"));
+
+        // Energy (base: joule)
+        category("energy",
+                unit(1.0, "joule", "j"),
+                unit(1000.0, "kilojoule", "kj"),
+                unit(4.184, "calorie", "cal"),
+                unit(4184.0, "kilocalorie", "kcal"),
+                unit(3600.0, "watt_hour", "wh"),
+                unit(3600000.0, "kilowatt_hour", "kwh"),
+                unit(1055.06, "british_thermal_unit", "btu"));
+
+        // Power (base: watt)
+        category("power",
+                unit(1.0, "watt", "w"),
+                unit(1000.0, "kilowatt", "kw"),
+                unit(1000000.0, "megawatt", "mw"),
+                unit(745.7, "horsepower", "hp"),
+                unit(0.293071, "british_thermal_unit_per_hour", "btu_per_hour"));
+
+        // Pressure (base: pascal)
+        category("pressure",
+                unit(1.0, "pascal", "pa"),
+                unit(1000.0, "kilopascal", "kpa"),
+                unit(100000.0, "bar"),
+                unit(101325.0, "atmosphere", "atm"),
+                unit(6894.76, "psi"),
+                unit(133.322, "mmhg"),
+                unit(133.322, "torr"));
+
+        // Time (base: second)
+        category("time",
+                unit(1.0, "second", "s"),
+                unit(60.0, "minute", "min"),
+                unit(3600.0, "hour", "h"),
+                unit(86400.0, "day", "d"),
+                unit(604800.0, "week"),
+                unit(2592000.0, "month"), // 30 days
+                unit(31536000.0, "year")); // 365 days
+
+        // Temperature (base: celsius, affine)
+        category("temperature",
+                affine(1.0, 0.0, "celsius", "c"),
+                affine(5.0 / 9.0, -32.0 * 5.0 / 9.0, "fahrenheit", "f"),
+                affine(1.0, -273.15, "kelvin", "k"));
+    }
+
+    /**
+     * Resolve a unit name or alias to its interned id.
+     * Exact (lowercase) names hit directly; other spellings fall back to a case-insensitive lookup.
+     * @param unit the unit name
+     * @return the unit id, or {@link #UNKNOWN}
+     */
+    public int resolve(String unit) {
+        if (unit == null) {
+            return UNKNOWN;
+        }
+        Integer id = ids.get(unit);
+        if (id == null) {
+            id = ids.get(unit.toLowerCase(Locale.ROOT));
+        }
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * Check whether two resolved units belong to the same category
+     */
+    public boolean compatible(int from, int to) {
+        return from >= 0 && to >= 0 && categoryOf[from] == categoryOf[to];
+    }
+
+    /**
+     * Convert a value between two resolved units of the same category
+     * @param from the source unit id
+     * @param to the target unit id
+     * @param value the value to convert
+     * @return converted value
+     */
+    public double convert(int from, int to, double value) {
+        int category = categoryOf[from];
+        if (category != categoryOf[to]) {
+            throw new IllegalArgumentException("Unsupported conversion from " + names.get(from) + " to " + names.get(to));
+        }
+        int i = slotOf[from];
+        int j = slotOf[to];
+        return value * scale[category][i][j] + offset[category][i][j];
+    }
+
+    /**
+     * Convert a column of values between two resolved units of the same category.
+     * The pair coefficients are resolved once and applied in a tight primitive loop.
+     * @param from the source unit id
+     * @param to the target unit id
+     * @param values the input values
+     * @param out the output array, at least as long as values
+     */
+    public void convertAll(int from, int to, double[] values, double[] out) {
+        int category = categoryOf[from];
+        if (category != categoryOf[to]) {
+            throw new IllegalArgumentException("Unsupported conversion from " + names.get(from) + " to " + names.get(to));
+        }
+        double s = scale[category][slotOf[from]][slotOf[to]];
+        double o = offset[category][slotOf[from]][slotOf[to]];
+        for (int k = 0; k < values.length; k++) {
+            out[k] = values[k] * s + o;
+        }
+    }
+
+    /**
+     * Canonical (first registered) name of a unit
+     */
+    public String name(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Canonical units per category, in registration order
+     */
+    public Map<String, String[]> canonicalUnits() {
+        Map<String, String[]> copy = new LinkedHashMap<>();
+        canonicalUnits.forEach((category, units) -> copy.put(category, units.clone()));
+        return copy;
+    }
+
+    private void category(String category, UnitDef... units) {
+        int categoryIndex = scale.length;
+        int size = units.length;
+        double[][] s = new double[size][size];
+        double[][] o = new double[size][size];
+        String[] canonical = new String[size];
+
+        int firstId = names.size();
+        categoryOf = Arrays.copyOf(categoryOf, firstId + size);
+        slotOf = Arrays.copyOf(slotOf, firstId + size);
+
+        for (int i = 0; i < size; i++) {
+            UnitDef from = units[i];
+            int id = firstId + i;
+            canonical[i] = from.names[0];
+            names.add(from.names[0]);
+            categoryOf[id] = categoryIndex;
+            slotOf[id] = i;
+            for (String alias : from.names) {
+                if (ids.putIfAbsent(alias, id) != null) {
+                    throw new IllegalStateException("Duplicate unit alias: " + alias);
+                }
+            }
+            // base = v * a_i + b_i ; target = (base - b_j) / a_j
+            for (int j = 0; j < size; j++) {
+                UnitDef to = units[j];
+                s[i][j] = from.scale / to.scale;
+                o[i][j] = (from.offset - to.offset) / to.scale;
+            }
+        }
+
+        scale = Arrays.copyOf(scale, categoryIndex + 1);
+        offset = Arrays.copyOf(offset, categoryIndex + 1);
+        scale[categoryIndex] = s;
+        offset[categoryIndex] = o;
+        canonicalUnits.put(category, canonical);
+    }
+
+    private static UnitDef unit(double scale, String... names) {
+        return new UnitDef(scale, 0.0, names);
+    }
+
+    private static UnitDef affine(double scale, double offset, String... names) {
+        return new UnitDef(scale, offset, names);
+    }
+
+    private record UnitDef(double scale, double offset, String[] names) {
+    }
+}
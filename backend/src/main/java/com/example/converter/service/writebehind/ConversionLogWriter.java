@@ -0,0 +1,292 @@
+package com.example.converter.service.writebehind;
+
+import com.example.converter.config.WriteBehindProperties;
+import com.example.converter.entity.CurrencyConversionAudit;
+import com.example.converter.entity.ExchangeRateHistory;
+import com.example.converter.entity.UnitConversionLog;
+import com.example.converter.service.exchange.ExchangeRateRollups;
+import com.example.converter.service.exchange.HistoryWatermarks;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Write-behind sink for conversion log rows (unit_conversion_log, exchange_rate_history and
+ * currency_conversion_audit).
+ * Request threads only enqueue; rows are inserted with plain JDBC batches (no IDENTITY
+ * round-trip per row) by one flusher thread per table. Exchange rate batches also update the
+ * exchange_rate_ohlc rollups. Buffers drain on shutdown.
+ */
+@Service
+@Slf4j
+public class ConversionLogWriter {
+
+    private static final String INSERT_UNIT_LOG =
+            "INSERT INTO unit_conversion_log (user_id, from_unit, to_unit, input_value, output_value, item_count, converted_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_RATE_HISTORY =
+            "INSERT INTO exchange_rate_history (base_currency, target_currency, rate, user_id, recorded_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CURRENCY_AUDIT =
+            "INSERT INTO currency_conversion_audit (user_id, from_currency, to_currency, amount, rate, item_count, channel, converted_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // unit_conversion_log input/output_value are NUMERIC(18,8), exchange_rate_history.rate is NUMERIC(10,4)
+    private static final int VALUE_SCALE = 8;
+    private static final BigDecimal VALUE_LIMIT = BigDecimal.TEN.pow(18 - VALUE_SCALE);
+    private static final int RATE_SCALE = 4;
+    private static final BigDecimal RATE_LIMIT = BigDecimal.TEN.pow(10 - RATE_SCALE);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExchangeRateRollups exchangeRateRollups;
+    private final HistoryWatermarks historyWatermarks;
+    private final WriteBehindBuffer<UnitConversionLog> unitLogs;
+    private final WriteBehindBuffer<ExchangeRateHistory> rateHistory;
+    private final WriteBehindBuffer<CurrencyConversionAudit> currencyAudit;
+
+    public ConversionLogWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               ExchangeRateRollups exchangeRateRollups, HistoryWatermarks historyWatermarks,
+                               WriteBehindProperties props, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.exchangeRateRollups = exchangeRateRollups;
+        this.historyWatermarks = historyWatermarks;
+        this.unitLogs = new WriteBehindBuffer<>("unit_conversion_log", props, meterRegistry,
+                this::insertUnitLogs, ConversionLogWriter::encodeUnitLog, ConversionLogWriter::decodeUnitLog);
+        this.rateHistory = new WriteBehindBuffer<>("exchange_rate_history", props, meterRegistry,
+                this::insertRateHistory, ConversionLogWriter::encodeRateHistory, ConversionLogWriter::decodeRateHistory);
+        this.currencyAudit = new WriteBehindBuffer<>("currency_conversion_audit", props, meterRegistry,
+                this::insertCurrencyAudit, ConversionLogWriter::encodeCurrencyAudit, ConversionLogWriter::decodeCurrencyAudit);
+        log.info("Conversion log write-behind {} (capacity={}, batchSize={}, flushIntervalMs={}, backpressure={})",
+                props.isEnabled() ? "enabled" : "disabled", props.getCapacity(), props.getBatchSize(),
+                props.getFlushIntervalMs(), props.getBackpressure());
+    }
+
+    /**
+     * Queue a unit conversion log row
+     * @return false if the row was out of column range or dropped by backpressure
+     */
+    public boolean submit(UnitConversionLog row) {
+        if (!fits(row.getInputValue(), VALUE_SCALE, VALUE_LIMIT) || !fits(row.getOutputValue(), VALUE_SCALE, VALUE_LIMIT)) {
+            log.warn("Unit conversion log {} -> {} not recorded: {} -> {} does not fit NUMERIC(18,8)",
+                    row.getFromUnit(), row.getToUnit(), row.getInputValue(), row.getOutputValue());
+            return false;
+        }
+        if (row.getConvertedAt() == null) {
+            row.setConvertedAt(LocalDateTime.now());
+        }
+        return unitLogs.submit(row);
+    }
+
+    /**
+     * Queue an exchange rate history row
+     * @return false if the rate was out of column range or the row was dropped by backpressure
+     */
+    public boolean submit(ExchangeRateHistory row) {
+        return normalize(row) && rateHistory.submit(row);
+    }
+
+    /**
+     * Queue an exchange rate history row without ever blocking the caller (BLOCK backpressure degrades to DROP).
+     * For reactive callers running on event-loop threads.
+     * @return false if the rate was out of column range or the row was dropped by backpressure
+     */
+    public boolean trySubmit(ExchangeRateHistory row) {
+        return normalize(row) && rateHistory.trySubmit(row);
+    }
+
+    /**
+     * Queue a currency conversion audit row
+     * @return false if the row was dropped by backpressure
+     */
+    public boolean submit(CurrencyConversionAudit row) {
+        normalize(row);
+        return currencyAudit.submit(row);
+    }
+
+    /**
+     * Queue a currency conversion audit row without ever blocking the caller (BLOCK backpressure degrades to DROP)
+     * @return false if the row was dropped by backpressure
+     */
+    public boolean trySubmit(CurrencyConversionAudit row) {
+        normalize(row);
+        return currencyAudit.trySubmit(row);
+    }
+
+    /**
+     * Currency codes are stored trimmed and upper-case so reads can use plain equality on the pair index
+     * @return false if the rate does not fit the rate column
+     */
+    private static boolean normalize(ExchangeRateHistory row) {
+        row.setBaseCurrency(row.getBaseCurrency().trim().toUpperCase());
+        row.setTargetCurrency(row.getTargetCurrency().trim().toUpperCase());
+        if (!fits(row.getRate(), RATE_SCALE, RATE_LIMIT)) {
+            log.warn("Exchange rate {}/{} not recorded: {} does not fit NUMERIC(10,4)",
+                    row.getBaseCurrency(), row.getTargetCurrency(), row.getRate());
+            return false;
+        }
+        if (row.getRecordedAt() == null) {
+            row.setRecordedAt(LocalDateTime.now());
+        }
+        return true;
+    }
+
+    /**
+     * Whether a value still fits a NUMERIC column once rounded to its scale; checked before queueing,
+     * since a row the database refuses costs its batch a split-and-retry in the buffer
+     */
+    private static boolean fits(BigDecimal value, int scale, BigDecimal limit) {
+        return value != null && value.setScale(scale, RoundingMode.HALF_UP).abs().compareTo(limit) < 0;
+    }
+
+    private static void normalize(CurrencyConversionAudit row) {
+        row.setFromCurrency(row.getFromCurrency().trim().toUpperCase());
+        row.setToCurrency(row.getToCurrency().trim().toUpperCase());
+        if (row.getConvertedAt() == null) {
+            row.setConvertedAt(LocalDateTime.now());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Draining conversion log write-behind buffers (unit={}, rates={}, currencyAudit={})",
+                unitLogs.depth(), rateHistory.depth(), currencyAudit.depth());
+        unitLogs.close();
+        rateHistory.close();
+        currencyAudit.close();
+    }
+
+    private void insertUnitLogs(List<UnitConversionLog> rows) {
+        jdbcTemplate.batchUpdate(INSERT_UNIT_LOG, rows, rows.size(), (ps, r) -> {
+            setNullableLong(ps, 1, r.getUserId());
+            ps.setString(2, r.getFromUnit());
+            ps.setString(3, r.getToUnit());
+            ps.setBigDecimal(4, r.getInputValue());
+            ps.setBigDecimal(5, r.getOutputValue());
+            ps.setInt(6, r.getItemCount() != null ? r.getItemCount() : 1);
+            ps.setTimestamp(7, Timestamp.valueOf(r.getConvertedAt()));
+        });
+    }
+
+    /**
+     * Insert raw history and fold it into the OHLC rollups in one transaction,
+     * so a failed (and later replayed) batch leaves neither behind.
+     * The per-pair history watermarks are advanced once the batch has committed.
+     */
+    private void insertRateHistory(List<ExchangeRateHistory> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_RATE_HISTORY, rows, rows.size(), (ps, r) -> {
+                ps.setString(1, r.getBaseCurrency());
+                ps.setString(2, r.getTargetCurrency());
+                ps.setBigDecimal(3, r.getRate());
+                setNullableLong(ps, 4, r.getUserId());
+                ps.setTimestamp(5, Timestamp.valueOf(r.getRecordedAt()));
+            });
+            exchangeRateRollups.apply(rows);
+        });
+        historyWatermarks.advance(rows);
+    }
+
+    private void insertCurrencyAudit(List<CurrencyConversionAudit> rows) {
+        jdbcTemplate.batchUpdate(INSERT_CURRENCY_AUDIT, rows, rows.size(), (ps, r) -> {
+            setNullableLong(ps, 1, r.getUserId());
+            ps.setString(2, r.getFromCurrency());
+            ps.setString(3, r.getToCurrency());
+            ps.setDouble(4, r.getAmount());
+            ps.setDouble(5, r.getRate());
+            ps.setInt(6, r.getItemCount());
+            ps.setString(7, r.getChannel());
+            ps.setTimestamp(8, Timestamp.valueOf(r.getConvertedAt()));
+        });
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    // Spill line format: tab-separated columns, empty field = null
+
+    private static String encodeUnitLog(UnitConversionLog r) {
+        return join(r.getUserId(), r.getFromUnit(), r.getToUnit(), r.getInputValue().toPlainString(),
+                r.getOutputValue().toPlainString(), r.getItemCount(), r.getConvertedAt());
+    }
+
+    private static UnitConversionLog decodeUnitLog(String line) {
+        String[] f = line.split("\t", -1);
+        UnitConversionLog r = new UnitConversionLog();
+        r.setUserId(f[0].isEmpty() ? null : Long.valueOf(f[0]));
+        r.setFromUnit(f[1]);
+        r.setToUnit(f[2]);
+        r.setInputValue(new BigDecimal(f[3]));
+        r.setOutputValue(new BigDecimal(f[4]));
+        r.setItemCount(f[5].isEmpty() ? 1 : Integer.valueOf(f[5]));
+        r.setConvertedAt(LocalDateTime.parse(f[6]));
+        return r;
+    }
+
+    private static String encodeRateHistory(ExchangeRateHistory r) {
+        return join(r.getBaseCurrency(), r.getTargetCurrency(), r.getRate().toPlainString(), r.getUserId(), r.getRecordedAt());
+    }
+
+    private static ExchangeRateHistory decodeRateHistory(String line) {
+        String[] f = line.split("\t", -1);
+        ExchangeRateHistory r = new ExchangeRateHistory();
+        r.setBaseCurrency(f[0]);
+        r.setTargetCurrency(f[1]);
+        r.setRate(new BigDecimal(f[2]));
+        r.setUserId(f[3].isEmpty() ? null : Long.valueOf(f[3]));
+        r.setRecordedAt(LocalDateTime.parse(f[4]));
+        return r;
+    }
+
+    private static String encodeCurrencyAudit(CurrencyConversionAudit r) {
+        return join(r.getUserId(), r.getFromCurrency(), r.getToCurrency(), r.getAmount(), r.getRate(),
+                r.getItemCount(), r.getChannel(), r.getConvertedAt());
+    }
+
+    private static CurrencyConversionAudit decodeCurrencyAudit(String line) {
+        String[] f = line.split("\t", -1);
+        CurrencyConversionAudit r = new CurrencyConversionAudit();
+        r.setUserId(f[0].isEmpty() ? null : Long.valueOf(f[0]));
+        r.setFromCurrency(f[1]);
+        r.setToCurrency(f[2]);
+        r.setAmount(Double.parseDouble(f[3]));
+        r.setRate(Double.parseDouble(f[4]));
+        r.setItemCount(Integer.parseInt(f[5]));
+        r.setChannel(f[6]);
+        r.setConvertedAt(LocalDateTime.parse(f[7]));
+        return r;
+    }
+
+    private static String join(Object... fields) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                sb.append('\t');
+            }
+            if (fields[i] != null) {
+                sb.append(fields[i]);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,451 @@
+package com.example.converter.service.writebehind;
+
+import com.example.converter.config.WriteBehindProperties;
+import com.example.converter.config.WriteBehindProperties.Backpressure;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded write-behind buffer for one kind of row.
+ * A single flusher thread drains the queue and hands batches to the sink when either
+ * batchSize items are pending or flushIntervalMs has passed. When the queue is full the
+ * configured backpressure applies: DROP the item, BLOCK the caller up to blockTimeoutMs
+ * (then drop), or SPILL it to a line file that is replayed once the queue has room again.
+ * A failed batch is split in halves and retried, so one row the sink refuses does not take the
+ * rest of the batch with it; rows refused while the sink accepts others go to a rejected file.
+ * close() stops intake and drains everything that is still queued.
+ */
+@Slf4j
+public class WriteBehindBuffer<T> {
+
+    private final String name;
+    private final WriteBehindProperties props;
+    private final Consumer<List<T>> sink;
+    private final Function<T, String> encoder;
+    private final Function<String, T> decoder;
+    private final BlockingQueue<T> queue;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path rejectedFile;
+    // a ReentrantLock rather than synchronized: spills do file I/O on request threads, which must not pin virtual-thread carriers
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private final Thread worker;
+
+    private final Timer flushLatency;
+    private final Counter flushed;
+    private final Counter dropped;
+    private final Counter spilled;
+    private final Counter failures;
+
+    private volatile boolean closed;
+
+    public WriteBehindBuffer(String name, WriteBehindProperties props, MeterRegistry meterRegistry,
+                             Consumer<List<T>> sink, Function<T, String> encoder, Function<String, T> decoder) {
+        this.name = name;
+        this.props = props;
+        this.sink = sink;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, props.getCapacity()));
+        this.spillFile = Path.of(props.getSpillDir(), name + ".spill");
+        this.replayFile = Path.of(props.getSpillDir(), name + ".replay");
+        this.rejectedFile = Path.of(props.getSpillDir(), name + ".rejected");
+
+        Gauge.builder("writebehind.queue.depth", queue, BlockingQueue::size)
+                .tag("buffer", name)
+                .description("Rows waiting to be flushed")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("writebehind.flush.latency").tag("buffer", name).register(meterRegistry);
+        this.flushed = Counter.builder("writebehind.items.flushed").tag("buffer", name).register(meterRegistry);
+        this.dropped = Counter.builder("writebehind.items.dropped").tag("buffer", name).register(meterRegistry);
+        this.spilled = Counter.builder("writebehind.items.spilled").tag("buffer", name).register(meterRegistry);
+        this.failures = Counter.builder("writebehind.flush.failures").tag("buffer", name).register(meterRegistry);
+
+        this.worker = new Thread(this::run, "write-behind-" + name);
+        this.worker.setDaemon(true);
+        if (props.isEnabled()) {
+            this.worker.start();
+        }
+    }
+
+    /**
+     * Enqueue a row, applying the configured backpressure when the queue is full.
+     * When write-behind is disabled or the buffer is closed the row is written synchronously.
+     * @return false if the row was dropped
+     */
+    public boolean submit(T item) {
+        return submit(item, props.getBackpressure());
+    }
+
+    /**
+     * Enqueue a row without ever blocking the caller; BLOCK degrades to DROP.
+     * Intended for event-loop threads.
+     * @return false if the row was dropped
+     */
+    public boolean trySubmit(T item) {
+        Backpressure policy = props.getBackpressure() == Backpressure.BLOCK ? Backpressure.DROP : props.getBackpressure();
+        return submit(item, policy);
+    }
+
+    private boolean submit(T item, Backpressure policy) {
+        if (!props.isEnabled() || closed) {
+            flush(List.of(item));
+            return true;
+        }
+        if (queue.offer(item)) {
+            return true;
+        }
+        switch (policy) {
+            case BLOCK:
+                try {
+                    if (queue.offer(item, props.getBlockTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            case SPILL:
+                if (spill(List.of(item))) {
+                    return true;
+                }
+                break;
+            default:
+                break;
+        }
+        dropped.increment();
+        log.warn("Write-behind buffer '{}' full ({} rows), dropping row", name, queue.size());
+        return false;
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    /**
+     * Stop accepting queued writes and drain what is left. Rows submitted afterwards are written synchronously.
+     */
+    public void close() {
+        closed = true;
+        if (!worker.isAlive()) {
+            return;
+        }
+        // no interrupt: it could abort a JDBC flush in progress; the worker sees the flag within one flush interval
+        try {
+            worker.join(props.getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn("Write-behind buffer '{}' did not drain within {} ms ({} rows left)", name, props.getShutdownTimeoutMs(), queue.size());
+            return;
+        }
+        // rows that raced in between the worker's last check and its exit
+        List<T> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            flushOrSpill(rest);
+        }
+        log.info("Write-behind buffer '{}' drained", name);
+    }
+
+    private void run() {
+        int batchSize = Math.max(1, props.getBatchSize());
+        List<T> batch = new ArrayList<>(batchSize);
+        replaySpill(batchSize, false);
+        while (!closed || !queue.isEmpty()) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(props.getFlushIntervalMs());
+            try {
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    T item = closed ? queue.poll() : queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (item == null) {
+                        break;
+                    }
+                    batch.add(item);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                closed = true;
+            }
+            boolean sinkUp = false;
+            if (!batch.isEmpty()) {
+                sinkUp = flushOrSpill(batch);
+                batch.clear();
+            }
+            if (queue.size() < props.getCapacity() / 2) {
+                replaySpill(batchSize, sinkUp);
+            }
+        }
+    }
+
+    /**
+     * @return true if the sink accepted at least one row of the batch
+     */
+    private boolean flushOrSpill(List<T> batch) {
+        if (flush(batch)) {
+            return true;
+        }
+        List<T> refused = new ArrayList<>();
+        if (split(batch, refused)) {
+            reject(refused);
+            return true;
+        }
+        if (!(props.getBackpressure() == Backpressure.SPILL && spill(batch))) {
+            dropped.increment(batch.size());
+        }
+        return false;
+    }
+
+    /**
+     * Retry a batch that just failed as a whole, half by half, collecting the rows the sink still refuses.
+     * When both halves of the batch fail outright the sink is taken to be down rather than the rows bad,
+     * and splitting stops (so an outage costs two extra calls per batch, not one per row).
+     * @return true if the sink accepted any row of the batch; if false, refused holds the whole batch
+     */
+    private boolean split(List<T> failed, List<T> refused) {
+        return split(failed, false, refused);
+    }
+
+    private boolean split(List<T> failed, boolean sinkUp, List<T> refused) {
+        if (failed.size() == 1) {
+            refused.add(failed.get(0));
+            return sinkUp;
+        }
+        List<T> left = failed.subList(0, failed.size() / 2);
+        List<T> right = failed.subList(failed.size() / 2, failed.size());
+        boolean leftOk = flush(left);
+        boolean rightOk = flush(right);
+        if (!leftOk && !rightOk && !sinkUp) {
+            refused.addAll(failed);
+            return false;
+        }
+        if (!leftOk) {
+            split(left, true, refused);
+        }
+        if (!rightOk) {
+            split(right, true, refused);
+        }
+        return true;
+    }
+
+    private boolean flush(List<T> batch) {
+        long start = System.nanoTime();
+        try {
+            sink.accept(batch);
+            flushed.increment(batch.size());
+            return true;
+        } catch (Exception e) {
+            failures.increment();
+            log.error("Write-behind flush of {} '{}' rows failed: {}", batch.size(), name, e.getMessage());
+            return false;
+        } finally {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean spill(List<T> items) {
+        spillLock.lock();
+        try {
+            try {
+                Files.createDirectories(spillFile.getParent());
+                try (BufferedWriter w = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (T item : items) {
+                        w.write(encoder.apply(item));
+                        w.newLine();
+                    }
+                }
+                spilled.increment(items.size());
+                return true;
+            } catch (IOException e) {
+                log.error("Write-behind spill for '{}' failed: {}", name, e.getMessage());
+                return false;
+            }
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * Put the unflushed part of a replay back into the spill file so already-flushed rows are not written twice
+     */
+    private void respill(List<T> batch, BufferedReader rest) throws IOException {
+        spillLock.lock();
+        try {
+            try (BufferedWriter w = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (T item : batch) {
+                    w.write(encoder.apply(item));
+                    w.newLine();
+                }
+                String line;
+                while ((line = rest.readLine()) != null) {
+                    w.write(line);
+                    w.newLine();
+                }
+            }
+        } finally {
+            spillLock.unlock();
+        }
+        batch.clear();
+    }
+
+    /**
+     * Keep a spilled line that no longer decodes (e.g. truncated by a crash) out of the replay
+     */
+    private void reject(String line, RuntimeException cause) {
+        log.warn("Write-behind replay for '{}' rejected an undecodable row: {}", name, cause.getMessage());
+        writeRejected(List.of(line));
+    }
+
+    /**
+     * Keep rows the sink refuses while it accepts others (e.g. a value out of column range) out of
+     * the spill file, where they would be retried forever
+     */
+    private void reject(List<T> rows) {
+        log.warn("Write-behind buffer '{}' rejected {} rows the sink refused", name, rows.size());
+        List<String> lines = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            lines.add(encoder.apply(row));
+        }
+        writeRejected(lines);
+    }
+
+    private void writeRejected(List<String> lines) {
+        dropped.increment(lines.size());
+        try {
+            Files.createDirectories(rejectedFile.getParent());
+            try (BufferedWriter w = Files.newBufferedWriter(rejectedFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String line : lines) {
+                    w.write(line);
+                    w.newLine();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Write-behind buffer '{}' could not record {} rejected rows: {}", name, lines.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Replay spilled rows through the sink. The spill file is moved aside first so that new
+     * spills keep appending while the replay runs; when the sink is down the unflushed rows go
+     * back to the spill file. Failed batches are split as in a regular flush; a row that still
+     * fails on its own while the sink has just accepted other rows (the flush before this replay
+     * or an earlier batch of it) goes to the rejected file instead of being spilled again.
+     * Lines that do not decode go to the rejected file too, and on any other failure only the
+     * unread remainder is put back, so rows are never flushed twice.
+     * @param sinkUp whether the flush right before this replay went through
+     */
+    private void replaySpill(int batchSize, boolean sinkUp) {
+        spillLock.lock();
+        try {
+            try {
+                if (!Files.exists(replayFile)) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException e) {
+                log.error("Write-behind replay for '{}' could not claim spill file: {}", name, e.getMessage());
+                return;
+            }
+        } finally {
+            spillLock.unlock();
+        }
+
+        List<T> batch = new ArrayList<>(batchSize);
+        int replayed = 0;
+        try (BufferedReader r = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            try {
+                String line;
+                while ((line = r.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        batch.add(decoder.apply(line));
+                    } catch (RuntimeException e) {
+                        reject(line, e);
+                        continue;
+                    }
+                    if (batch.size() >= batchSize) {
+                        int n = replay(batch, sinkUp || replayed > 0);
+                        if (n < 0) {
+                            respill(batch, r);
+                            break;
+                        }
+                        replayed += n;
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    int n = replay(batch, sinkUp || replayed > 0);
+                    if (n < 0) {
+                        respill(batch, r);
+                    } else {
+                        replayed += n;
+                        batch.clear();
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Write-behind replay for '{}' failed after {} rows, requeueing the rest: {}", name, replayed, e.getMessage());
+                respill(batch, r);
+            }
+        } catch (IOException | RuntimeException e) {
+            // the remainder could not be put back; keep the replay file rather than lose rows
+            log.error("Write-behind replay for '{}' could not requeue unread rows: {}", name, e.getMessage());
+            return;
+        }
+        try {
+            Files.deleteIfExists(replayFile);
+            log.info("Replayed {} spilled '{}' rows", replayed, name);
+        } catch (IOException e) {
+            log.error("Write-behind replay for '{}' could not remove {}: {}", name, replayFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Flush one replayed batch
+     * @param sinkUp whether the sink accepted other rows just before
+     * @return rows flushed, or -1 if the sink looks down and the batch should be spilled again
+     */
+    private int replay(List<T> batch, boolean sinkUp) {
+        if (flush(batch)) {
+            return batch.size();
+        }
+        List<T> refused = new ArrayList<>();
+        // a lone row gets no second chance from split, so it is judged by what the sink did just before
+        if (!split(batch, refused) && !(sinkUp && batch.size() == 1)) {
+            return -1;
+        }
+        reject(refused);
+        return batch.size() - refused.size();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.converter.web;
+
+import com.example.converter.dto.exchange.FxHistoryResponse;
+import com.example.converter.dto.exchange.FxPointDTO;
+import org.springframework.http.MediaType;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact columnar encoding of {@link FxHistoryResponse} (application/x-fx-history).
+ * <pre>
+ * magic   "FXH" + version byte (1)
+ * base    3 bytes ASCII
+ * quote   3 bytes ASCII
+ * scale   1 byte: rates are sent as rate * 10^scale
+ * count   varint
+ * dates   count zigzag varints: first epoch day, then day-to-day deltas (1 byte for daily data)
+ * rates   count zigzag varints: first scaled rate, then deltas between consecutive scaled rates
+ * </pre>
+ * Varints are unsigned LEB128 (7 bits per byte, low group first), as in protobuf.
+ */
+public final class FxHistoryBinaryCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-fx-history";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final byte[] MAGIC = {'F', 'X', 'H', 1};
+    private static final int MAX_SCALE = 12;
+
+    private FxHistoryBinaryCodec() {
+    }
+
+    public static void encode(FxHistoryResponse history, OutputStream os) throws IOException {
+        List<FxPointDTO> points = history.getHistory() != null ? history.getHistory() : List.of();
+        int n = points.size();
+        int scale = 0;
+        for (FxPointDTO p : points) {
+            scale = Math.max(scale, p.getRate().scale());
+        }
+        scale = Math.min(scale, MAX_SCALE);
+
+        // header + worst case of 10 bytes per varint
+        Buffer out = new Buffer(new byte[MAGIC.length + 7 + 10 + n * 20]);
+        out.write(MAGIC);
+        out.write(code(history.getBase()));
+        out.write(code(history.getQuote()));
+        out.write(scale);
+        out.writeVarint(n);
+        long prev = 0;
+        for (FxPointDTO p : points) {
+            long day = p.getDate().toEpochDay();
+            out.writeVarint(zigzag(day - prev));
+            prev = day;
+        }
+        prev = 0;
+        for (FxPointDTO p : points) {
+            BigDecimal rate = p.getRate();
+            long scaled = rate.scale() == scale
+                    ? rate.unscaledValue().longValueExact()
+                    : rate.setScale(scale, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+            out.writeVarint(zigzag(scaled - prev));
+            prev = scaled;
+        }
+        os.write(out.bytes, 0, out.pos);
+        os.flush();
+    }
+
+    public static FxHistoryResponse decode(InputStream is) throws IOException {
+        Buffer in = new Buffer(is.readAllBytes());
+        for (byte b : MAGIC) {
+            if (in.read() != (b & 0xFF)) {
+                throw new IOException("Not an " + MEDIA_TYPE_VALUE + " v1 payload");
+            }
+        }
+        in.require(7);
+        String base = new String(in.bytes, in.pos, 3, StandardCharsets.US_ASCII);
+        String quote = new String(in.bytes, in.pos + 3, 3, StandardCharsets.US_ASCII);
+        in.pos += 6;
+        int scale = in.read();
+        long count = in.readVarint();
+        if (count > in.bytes.length) {
+            throw new IOException("Invalid point count " + count);
+        }
+        int n = (int) count;
+
+        long[] days = new long[n];
+        long prev = 0;
+        for (int i = 0; i < n; i++) {
+            prev += unzigzag(in.readVarint());
+            days[i] = prev;
+        }
+        List<FxPointDTO> points = new ArrayList<>(n);
+        prev = 0;
+        for (int i = 0; i < n; i++) {
+            prev += unzigzag(in.readVarint());
+            points.add(new FxPointDTO(LocalDate.ofEpochDay(days[i]), BigDecimal.valueOf(prev, scale)));
+        }
+        return new FxHistoryResponse(base, quote, points);
+    }
+
+    private static byte[] code(String currency) {
+        byte[] b = currency.getBytes(StandardCharsets.US_ASCII);
+        if (b.length != 3) {
+            throw new IllegalArgumentException("Currency code must be 3 characters: " + currency);
+        }
+        return b;
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static final class Buffer {
+        final byte[] bytes;
+        int pos;
+
+        Buffer(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        void write(int b) {
+            bytes[pos++] = (byte) b;
+        }
+
+        void write(byte[] b) {
+            System.arraycopy(b, 0, bytes, pos, b.length);
+            pos += b.length;
+        }
+
+        void writeVarint(long v) {
+            while ((v & ~0x7FL) != 0) {
+                bytes[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            bytes[pos++] = (byte) v;
+        }
+
+        void require(int n) throws EOFException {
+            if (bytes.length - pos < n) {
+                throw new EOFException("Truncated payload");
+            }
+        }
+
+        int read() throws EOFException {
+            require(1);
+            return bytes[pos++] & 0xFF;
+        }
+
+        long readVarint() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return v;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+    }
+}
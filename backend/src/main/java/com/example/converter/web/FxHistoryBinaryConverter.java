@@ -0,0 +1,39 @@
+package com.example.converter.web;
+
+import com.example.converter.dto.exchange.FxHistoryResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes (and reads) {@link FxHistoryResponse} as {@link FxHistoryBinaryCodec#MEDIA_TYPE_VALUE}
+ * for clients that ask for it in Accept. Registered after the JSON converter, so JSON stays the default.
+ */
+public class FxHistoryBinaryConverter extends AbstractHttpMessageConverter<FxHistoryResponse> {
+
+    public FxHistoryBinaryConverter() {
+        super(FxHistoryBinaryCodec.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return FxHistoryResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected FxHistoryResponse readInternal(Class<? extends FxHistoryResponse> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return FxHistoryBinaryCodec.decode(inputMessage.getBody());
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Invalid fx history payload: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(FxHistoryResponse history, HttpOutputMessage outputMessage) throws IOException {
+        FxHistoryBinaryCodec.encode(history, outputMessage.getBody());
+    }
+}
@@ -0,0 +1,2 @@
+-- Batch conversions write one aggregated row per unit pair; item_count records how many values it covers.
+ALTER TABLE unit_conversion_log ADD COLUMN IF NOT EXISTS item_count INTEGER NOT NULL DEFAULT 1;
@@ -0,0 +1,32 @@
+-- Pre-aggregated OHLC buckets per currency pair, maintained by the exchange_rate_history write-behind flush.
+-- granularity: 'H' = hourly, 'D' = daily; bucket_start is the truncated recorded_at.
+-- open_at/close_at keep open/close correct when rows arrive out of order (spill replay).
+CREATE TABLE IF NOT EXISTS exchange_rate_ohlc (
+  id BIGSERIAL PRIMARY KEY,
+  base_currency   VARCHAR(3)    NOT NULL,
+  target_currency VARCHAR(3)    NOT NULL,
+  granularity     CHAR(1)       NOT NULL,
+  bucket_start    TIMESTAMP     NOT NULL,
+  open_rate       NUMERIC(10,4) NOT NULL,
+  high_rate       NUMERIC(10,4) NOT NULL,
+  low_rate        NUMERIC(10,4) NOT NULL,
+  close_rate      NUMERIC(10,4) NOT NULL,
+  sample_count    BIGINT        NOT NULL,
+  open_at         TIMESTAMP     NOT NULL,
+  close_at        TIMESTAMP     NOT NULL,
+  CONSTRAINT uk_ohlc_bucket UNIQUE (base_currency, target_currency, granularity, bucket_start)
+);
+
+-- Backfill from raw history
+INSERT INTO exchange_rate_ohlc (base_currency, target_currency, granularity, bucket_start,
+                                open_rate, high_rate, low_rate, close_rate, sample_count, open_at, close_at)
+SELECT upper(base_currency), upper(target_currency), g.granularity,
+       date_trunc(g.unit, recorded_at) AS bucket_start,
+       (array_agg(rate ORDER BY recorded_at ASC))[1],
+       max(rate), min(rate),
+       (array_agg(rate ORDER BY recorded_at DESC))[1],
+       count(*), min(recorded_at), max(recorded_at)
+FROM exchange_rate_history
+CROSS JOIN (VALUES ('H', 'hour'), ('D', 'day')) AS g(granularity, unit)
+GROUP BY upper(base_currency), upper(target_currency), g.granularity, date_trunc(g.unit, recorded_at)
+ON CONFLICT ON CONSTRAINT uk_ohlc_bucket DO NOTHING;
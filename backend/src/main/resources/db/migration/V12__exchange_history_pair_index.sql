@@ -0,0 +1,9 @@
+-- Currency codes are normalised to upper case at write time (ConversionLogWriter); fix up older rows.
+UPDATE exchange_rate_history
+SET base_currency = upper(trim(base_currency)), target_currency = upper(trim(target_currency))
+WHERE base_currency <> upper(trim(base_currency)) OR target_currency <> upper(trim(target_currency));
+
+-- Serves pair + time-range history reads (equality on the pair, half-open range on recorded_at, newest first).
+-- Built concurrently so writes are not blocked on large tables; see the .conf next to this file.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_erh_pair_time
+  ON exchange_rate_history (base_currency, target_currency, recorded_at);
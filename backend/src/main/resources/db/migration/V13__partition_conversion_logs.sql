@@ -0,0 +1,106 @@
+-- Monthly range partitioning of the two append-only log tables so retention is a partition drop
+-- instead of a DELETE scan. Partitions are named <table>_pYYYYMM and cover [month, month + 1).
+-- RetentionTasks keeps future partitions created and removes expired ones.
+
+-- Creates the monthly partitions of parent covering [from_month, from_month + months); existing ones are kept.
+-- Rows already sitting in the DEFAULT partition for a new month are moved into it before it is attached.
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(parent TEXT, from_month DATE, months INTEGER)
+RETURNS INTEGER
+LANGUAGE plpgsql AS $$
+DECLARE
+  m       DATE := date_trunc('month', from_month)::date;
+  created INTEGER := 0;
+  name    TEXT;
+  dflt    TEXT := parent || '_default';
+  keycol  TEXT;
+BEGIN
+  SELECT a.attname INTO keycol
+  FROM pg_partitioned_table p
+  JOIN pg_attribute a ON a.attrelid = p.partrelid AND a.attnum = p.partattrs[0]
+  WHERE p.partrelid = to_regclass(parent);
+
+  FOR i IN 1..months LOOP
+    name := parent || '_p' || to_char(m, 'YYYYMM');
+    IF to_regclass(name) IS NULL THEN
+      IF to_regclass(dflt) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       name, parent, m::timestamp, (m + INTERVAL '1 month')::timestamp);
+      ELSE
+        EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', name, parent);
+        EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) '
+                       'INSERT INTO %I SELECT * FROM moved',
+                       dflt, keycol, m::timestamp, keycol, (m + INTERVAL '1 month')::timestamp, name);
+        EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       parent, name, m::timestamp, (m + INTERVAL '1 month')::timestamp);
+      END IF;
+      created := created + 1;
+    END IF;
+    m := (m + INTERVAL '1 month')::date;
+  END LOOP;
+  RETURN created;
+END;
+$$;
+
+-- Rebuilds table as a partitioned copy keyed on column, keeping its columns, defaults, foreign keys
+-- and id sequence (serial or identity). Partitions span the existing data through three months ahead;
+-- a DEFAULT partition, <table>_default, takes rows outside them.
+CREATE OR REPLACE FUNCTION partition_log_table_by_month(tbl TEXT, col TEXT)
+RETURNS VOID
+LANGUAGE plpgsql AS $$
+DECLARE
+  legacy    TEXT := tbl || '_legacy';
+  seq       TEXT := pg_get_serial_sequence(tbl, 'id');
+  identity  BOOLEAN;
+  next_id   BIGINT;
+  first_m   DATE;
+  last_m    DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+  fk        RECORD;
+BEGIN
+  IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(tbl)) THEN
+    RETURN;
+  END IF;
+  SELECT attidentity <> '' INTO identity
+  FROM pg_attribute WHERE attrelid = to_regclass(tbl) AND attname = 'id';
+
+  -- identity sequences cannot be detached; the copy gets a fresh one that is moved past the old values below
+  IF seq IS NOT NULL AND NOT identity THEN
+    EXECUTE format('ALTER SEQUENCE %s OWNED BY NONE', seq);
+  END IF;
+  IF seq IS NOT NULL THEN
+    EXECUTE format('SELECT last_value FROM %s', seq) INTO next_id;
+  END IF;
+  EXECUTE format('ALTER TABLE %I RENAME TO %I', tbl, legacy);
+  EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS %s, PRIMARY KEY (id, %I)) '
+                 'PARTITION BY RANGE (%I)', tbl, legacy, CASE WHEN identity THEN 'INCLUDING IDENTITY' ELSE '' END, col, col);
+
+  EXECUTE format('SELECT date_trunc(''month'', min(%I))::date FROM %I', col, legacy) INTO first_m;
+  first_m := least(coalesce(first_m, date_trunc('month', now())::date), date_trunc('month', now())::date);
+  PERFORM ensure_monthly_partitions(tbl, first_m,
+      ((extract(year FROM age(last_m, first_m)) * 12 + extract(month FROM age(last_m, first_m)))::int) + 1);
+  EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', tbl || '_default', tbl);
+
+  EXECUTE format('INSERT INTO %I %s SELECT * FROM %I', tbl,
+                 CASE WHEN identity THEN 'OVERRIDING SYSTEM VALUE' ELSE '' END, legacy);
+
+  -- LIKE does not copy foreign keys
+  FOR fk IN SELECT conname, pg_get_constraintdef(oid) AS def
+            FROM pg_constraint WHERE conrelid = to_regclass(legacy) AND contype = 'f' LOOP
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I %s', tbl, fk.conname, fk.def);
+  END LOOP;
+
+  EXECUTE format('DROP TABLE %I', legacy);
+  IF seq IS NOT NULL AND identity THEN
+    PERFORM setval(pg_get_serial_sequence(tbl, 'id'), next_id);
+  ELSIF seq IS NOT NULL THEN
+    EXECUTE format('ALTER SEQUENCE %s OWNED BY %I.id', seq, tbl);
+  END IF;
+END;
+$$;
+
+SELECT partition_log_table_by_month('exchange_rate_history', 'recorded_at');
+SELECT partition_log_table_by_month('unit_conversion_log', 'converted_at');
+DROP FUNCTION partition_log_table_by_month(TEXT, TEXT);
+
+-- Indexes on the parent cascade to every current and future partition.
+CREATE INDEX IF NOT EXISTS idx_erh_pair_time ON exchange_rate_history (base_currency, target_currency, recorded_at);
+CREATE INDEX IF NOT EXISTS idx_ucl_user_time ON unit_conversion_log (user_id, converted_at);
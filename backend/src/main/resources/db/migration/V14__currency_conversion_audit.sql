@@ -0,0 +1,19 @@
+-- Per-user currency conversion audit, split from exchange_rate_history (which now only holds the
+-- snapshotter's canonical points). Written through the write-behind queue: one row per request,
+-- or per distinct pair for batch/stream requests. Monthly partitions as in V13.
+CREATE TABLE IF NOT EXISTS currency_conversion_audit (
+  id            BIGSERIAL,
+  user_id       BIGINT,
+  from_currency VARCHAR(3)       NOT NULL,
+  to_currency   VARCHAR(3)       NOT NULL,
+  amount        DOUBLE PRECISION NOT NULL,
+  rate          DOUBLE PRECISION NOT NULL,
+  item_count    INTEGER          NOT NULL DEFAULT 1,
+  channel       VARCHAR(16)      NOT NULL,
+  converted_at  TIMESTAMP        NOT NULL,
+  PRIMARY KEY (id, converted_at)
+) PARTITION BY RANGE (converted_at);
+
+SELECT ensure_monthly_partitions('currency_conversion_audit', date_trunc('month', now())::date, 4);
+
+CREATE INDEX IF NOT EXISTS idx_cca_user_time ON currency_conversion_audit (user_id, converted_at);
@@ -0,0 +1,14 @@
+-- Batch news ingestion inserts with ON CONFLICT (url) DO NOTHING, which needs a unique index on url.
+-- Only created when the table does not already have one (the JPA mapping declares url unique).
+DO $$
+BEGIN
+  IF NOT EXISTS (
+    SELECT 1
+    FROM pg_index i
+    JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+    WHERE i.indrelid = 'news_articles'::regclass AND i.indisunique AND i.indnatts = 1 AND a.attname = 'url'
+  ) THEN
+    DELETE FROM news_articles n USING news_articles d WHERE n.url = d.url AND n.id > d.id;
+    CREATE UNIQUE INDEX uk_news_articles_url ON news_articles (url);
+  END IF;
+END $$;
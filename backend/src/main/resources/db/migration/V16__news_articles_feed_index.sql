@@ -0,0 +1,4 @@
+-- Serves the keyset-paginated news feed: ORDER BY published_at DESC, id DESC with (published_at, id) < cursor.
+-- Built concurrently so crawl ingestion is not blocked; see the .conf next to this file.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_news_articles_published_id
+  ON news_articles (published_at, id);
@@ -0,0 +1,4 @@
+-- DEFAULT partition for currency_conversion_audit, as V13 gives the other log tables, so rows outside
+-- the premade months are kept instead of rejected. ensure_monthly_partitions moves them out when their
+-- month is created.
+CREATE TABLE IF NOT EXISTS currency_conversion_audit_default PARTITION OF currency_conversion_audit DEFAULT;
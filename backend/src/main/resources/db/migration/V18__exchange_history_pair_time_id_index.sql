@@ -0,0 +1,13 @@
+-- Raw history pages are keyset-paginated on (recorded_at, id) (RawHistoryService). With id in the index a page
+-- starts right at the cursor and comes out in order; without it Postgres adds an Incremental Sort on id.
+-- The (base_currency, target_currency, recorded_at) prefix still serves every reader of the old index, so it is
+-- replaced and the new index takes over its name.
+-- exchange_rate_history is partitioned since V13 and Postgres cannot build a partitioned index CONCURRENTLY,
+-- so this runs as a plain CREATE INDEX: it cascades to every partition and holds off writes to each while
+-- building it (the write-behind buffers absorb them meanwhile).
+CREATE INDEX IF NOT EXISTS idx_erh_pair_time_id
+  ON exchange_rate_history (base_currency, target_currency, recorded_at, id);
+
+DROP INDEX IF EXISTS idx_erh_pair_time;
+
+ALTER INDEX idx_erh_pair_time_id RENAME TO idx_erh_pair_time;
@@ -0,0 +1,124 @@
+package com.example.converter.db;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs V13__partition_conversion_logs.sql on populated log tables: exchange_rate_history with a
+ * serial id and unit_conversion_log with an identity id, both with a user_id foreign key.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PartitionMigrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        try (Connection c = connect(); Statement st = c.createStatement()) {
+            st.execute("CREATE TABLE users (id BIGSERIAL PRIMARY KEY, username VARCHAR(50) NOT NULL)");
+            st.execute("INSERT INTO users (username) VALUES ('a'), ('b')");
+            st.execute("CREATE TABLE exchange_rate_history (id BIGSERIAL PRIMARY KEY, "
+                    + "base_currency VARCHAR(3) NOT NULL, target_currency VARCHAR(3) NOT NULL, "
+                    + "rate NUMERIC(10, 4) NOT NULL, user_id BIGINT REFERENCES users (id), "
+                    + "recorded_at TIMESTAMP NOT NULL DEFAULT now())");
+            st.execute("CREATE TABLE unit_conversion_log (id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY, "
+                    + "user_id BIGINT REFERENCES users (id), from_unit VARCHAR(50) NOT NULL, to_unit VARCHAR(50) NOT NULL, "
+                    + "input_value NUMERIC(18, 8) NOT NULL, output_value NUMERIC(18, 8) NOT NULL, "
+                    + "item_count INTEGER NOT NULL DEFAULT 1, converted_at TIMESTAMP NOT NULL)");
+            // a year of history, one row per day
+            st.execute("INSERT INTO exchange_rate_history (base_currency, target_currency, rate, user_id, recorded_at) "
+                    + "SELECT 'USD', 'EUR', 0.9, 1 + g % 2, date_trunc('day', now()) - g * INTERVAL '1 day' "
+                    + "FROM generate_series(0, 364) g");
+            st.execute("INSERT INTO unit_conversion_log (user_id, from_unit, to_unit, input_value, output_value, converted_at) "
+                    + "SELECT 1, 'm', 'ft', g, g * 3.28084, date_trunc('day', now()) - g * INTERVAL '1 day' "
+                    + "FROM generate_series(0, 99) g");
+        }
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("12")
+                .target("13")
+                .load()
+                .migrate();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    }
+
+    private static long count(Statement st, String sql) throws SQLException {
+        try (ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Test
+    void tablesArePartitionedWithRowsKept() throws SQLException {
+        try (Connection c = connect(); Statement st = c.createStatement()) {
+            assertEquals(2, count(st, "SELECT count(*) FROM pg_partitioned_table "
+                    + "WHERE partrelid IN ('exchange_rate_history'::regclass, 'unit_conversion_log'::regclass)"));
+            assertEquals(365, count(st, "SELECT count(*) FROM exchange_rate_history WHERE target_currency = 'EUR'"));
+            assertEquals(100, count(st, "SELECT count(*) FROM unit_conversion_log WHERE from_unit = 'm'"));
+            assertEquals(0, count(st, "SELECT count(*) FROM exchange_rate_history_default WHERE target_currency = 'EUR'"));
+            assertEquals(0, count(st, "SELECT count(*) FROM pg_class WHERE relname LIKE '%\\_legacy'"));
+        }
+    }
+
+    @Test
+    void foreignKeysAreKept() throws SQLException {
+        try (Connection c = connect(); Statement st = c.createStatement()) {
+            assertEquals(1, count(st, "SELECT count(*) FROM pg_constraint "
+                    + "WHERE conrelid = 'exchange_rate_history'::regclass AND contype = 'f'"));
+            assertEquals(1, count(st, "SELECT count(*) FROM pg_constraint "
+                    + "WHERE conrelid = 'unit_conversion_log'::regclass AND contype = 'f'"));
+            assertThrows(SQLException.class, () -> st.execute(
+                    "INSERT INTO exchange_rate_history (base_currency, target_currency, rate, user_id, recorded_at) "
+                            + "VALUES ('USD', 'EUR', 0.9, 999, now())"));
+        }
+    }
+
+    @Test
+    void idsContinueAfterCopiedRows() throws SQLException {
+        try (Connection c = connect(); Statement st = c.createStatement()) {
+            long erhMax = count(st, "SELECT max(id) FROM exchange_rate_history");
+            long erhNext = count(st, "INSERT INTO exchange_rate_history (base_currency, target_currency, rate, recorded_at) "
+                    + "VALUES ('USD', 'JPY', 150, now()) RETURNING id");
+            assertTrue(erhNext > erhMax);
+
+            long uclMax = count(st, "SELECT max(id) FROM unit_conversion_log");
+            long uclNext = count(st, "INSERT INTO unit_conversion_log (from_unit, to_unit, input_value, output_value, converted_at) "
+                    + "VALUES ('kg', 'lb', 1, 2.2, now()) RETURNING id");
+            assertTrue(uclNext > uclMax);
+        }
+    }
+
+    @Test
+    void rowsOutsidePremadeMonthsGoToDefaultAndMoveOut() throws SQLException {
+        try (Connection c = connect(); Statement st = c.createStatement()) {
+            st.execute("INSERT INTO exchange_rate_history (base_currency, target_currency, rate, recorded_at) "
+                    + "VALUES ('USD', 'GBP', 0.8, TIMESTAMP '2099-06-15')");
+            assertEquals(1, count(st, "SELECT count(*) FROM exchange_rate_history_default"));
+
+            assertEquals(1, count(st, "SELECT ensure_monthly_partitions('exchange_rate_history', DATE '2099-06-01', 1)"));
+            assertEquals(0, count(st, "SELECT count(*) FROM exchange_rate_history_default"));
+            assertEquals(1, count(st, "SELECT count(*) FROM exchange_rate_history_p209906"));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.converter.service.news;
+
+import com.example.converter.dto.news.NewsArticleDTO;
+import com.example.converter.service.news.NewsSearchIndex.SearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NewsSearchIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final String[] WORDS = {"rate", "bank", "inflation", "market", "policy", "export", "gold", "bond", "yield"};
+    private static final String[] CURRENCIES = {"USD", "EUR", "JPY", "VND"};
+    private static final String[] CATEGORIES = {"forex", "economy", "stocks"};
+    private static final String[] LABELS = {"positive", "negative", "neutral"};
+
+    private JdbcTemplate jdbcTemplate;
+    private NewsSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        index = new NewsSearchIndex(jdbcTemplate);
+    }
+
+    private static NewsArticleDTO article(long id, String title, String summary, String category, String label,
+                                          LocalDateTime publishedAt) {
+        return new NewsArticleDTO(id, title, summary, "https://news.example/" + id, category, label, 0.0, publishedAt, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void storedRows(List<NewsArticleDTO> rows) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyLong(), anyInt())).thenReturn(List.of());
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(0L), anyInt())).thenReturn(rows);
+    }
+
+    private static List<Long> ids(SearchResult result) {
+        return result.items().stream().map(NewsArticleDTO::getId).toList();
+    }
+
+    @Test
+    void gallopsThroughLongPostingLists() {
+        List<NewsArticleDTO> rows = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            // "market" everywhere, "gold" on every 997th article, "bond" on every 3rd
+            String title = "market" + (id % 997 == 0 ? " gold" : "") + (id % 3 == 0 ? " bond" : "");
+            rows.add(article(id, title, null, "forex", "neutral", T0.plusMinutes(id)));
+        }
+        index.add(rows);
+
+        SearchResult gold = index.search("gold market", null, null, null, null, null, 100);
+        assertEquals(List.of(9970L, 8973L, 7976L, 6979L, 5982L, 4985L, 3988L, 2991L, 1994L, 997L), ids(gold));
+        assertEquals(10, gold.total());
+
+        SearchResult goldBond = index.search("bond gold market", null, null, null, null, null, 100);
+        assertEquals(List.of(8973L, 5982L, 2991L), ids(goldBond));
+
+        assertEquals(0, index.search("gold absent", null, null, null, null, null, 100).total());
+    }
+
+    @Test
+    void keepsNewestHitsInOrder() {
+        List<NewsArticleDTO> rows = new ArrayList<>();
+        // publishedAt deliberately not in id order; ids 4 and 5 share a timestamp
+        int[] minutes = {50, 10, 40, 30, 30, 20, 60};
+        for (int i = 0; i < minutes.length; i++) {
+            rows.add(article(i + 1, "rate decision", null, "economy", "neutral", T0.plusMinutes(minutes[i])));
+        }
+        index.add(rows);
+
+        SearchResult top3 = index.search("rate", null, null, null, null, null, 3);
+        assertEquals(List.of(7L, 1L, 3L), ids(top3));
+        assertEquals(7, top3.total());
+
+        // on equal timestamps the later-indexed article ranks first
+        SearchResult all = index.search("rate", null, null, null, null, null, 10);
+        assertEquals(List.of(7L, 1L, 3L, 5L, 4L, 6L, 2L), ids(all));
+
+        SearchResult window = index.search("rate", null, null, null, T0.plusMinutes(20), T0.plusMinutes(50), 10);
+        assertEquals(List.of(3L, 5L, 4L, 6L), ids(window));
+    }
+
+    @Test
+    void addAfterRebuildExtendsIndexAndIgnoresRepeats() {
+        storedRows(List.of(
+                article(1, "Fed holds rate", null, "economy", "neutral", T0),
+                article(2, "Gold climbs", null, "economy", "positive", T0.plusHours(1))));
+        index.rebuild();
+        assertEquals(2, index.size());
+
+        index.add(List.of(
+                article(2, "Gold climbs", null, "economy", "positive", T0.plusHours(1)),
+                article(3, "Rate cut hopes lift gold", null, "economy", "positive", T0.plusHours(2))));
+        assertEquals(3, index.size());
+        assertEquals(List.of(3L, 1L), ids(index.search("rate", null, null, null, null, null, 10)));
+        assertEquals(List.of(3L, 2L), ids(index.search("gold", null, null, "POSITIVE", null, null, 10)));
+    }
+
+    @Test
+    void tokenizesThroughNewsText() {
+        index.add(List.of(
+                article(1, "Tỷ giá USD/VND tăng mạnh", "Đồng nội tệ chịu áp lực", "forex", "negative", T0),
+                article(2, "The dollar slips against the euro", null, "Forex", "neutral", T0.plusHours(1)),
+                article(3, "ALL TOP stories", "a b c", "stocks", "neutral", T0.plusHours(2))));
+
+        assertEquals(List.of(1L), ids(index.search("ty gia", null, null, null, null, null, 10)));
+        assertEquals(List.of(1L), ids(index.search("ĐỒNG", null, null, null, null, null, 10)));
+        assertEquals(List.of(2L, 1L), ids(index.search(null, "usd", null, null, null, null, 10)));
+        assertEquals(List.of(2L), ids(index.search("slips", "EUR", "forex", null, null, null, 10)));
+        // ambiguous upper-case words are not currencies; single characters are dropped from text and query alike
+        assertEquals(0, index.search(null, "ALL", null, null, null, null, 10).total());
+        assertEquals(List.of(3L), ids(index.search("b stories", null, "stocks", null, null, null, 10)));
+    }
+
+    @Test
+    void matchesBruteForceScan() {
+        Random random = new Random(42);
+        List<NewsArticleDTO> rows = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < 4; w++) {
+                title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            if (random.nextInt(3) == 0) {
+                title.append(CURRENCIES[random.nextInt(CURRENCIES.length)]);
+            }
+            rows.add(article(id, title.toString(), WORDS[random.nextInt(WORDS.length)],
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], LABELS[random.nextInt(LABELS.length)],
+                    T0.plusMinutes(random.nextInt(20_000))));
+        }
+        index.add(rows);
+        Map<Long, Set<String>> docTerms = new HashMap<>();
+        Map<Long, Set<String>> docCodes = new HashMap<>();
+        for (NewsArticleDTO a : rows) {
+            Set<String> terms = new HashSet<>(NewsText.terms(a.getTitle()));
+            terms.addAll(NewsText.terms(a.getSummary()));
+            docTerms.put(a.getId(), terms);
+            docCodes.put(a.getId(), NewsText.currencies(a.getTitle(), a.getSummary()));
+        }
+
+        for (int q = 0; q < 300; q++) {
+            String query = IntStream.range(0, random.nextInt(3))
+                    .mapToObj(i -> WORDS[random.nextInt(WORDS.length)])
+                    .reduce("", (a, b) -> a + " " + b);
+            String currency = random.nextBoolean() ? CURRENCIES[random.nextInt(CURRENCIES.length)] : null;
+            String category = random.nextBoolean() ? CATEGORIES[random.nextInt(CATEGORIES.length)] : null;
+            String label = random.nextBoolean() ? LABELS[random.nextInt(LABELS.length)] : null;
+            LocalDateTime from = random.nextBoolean() ? T0.plusMinutes(random.nextInt(10_000)) : null;
+            LocalDateTime to = random.nextBoolean() ? T0.plusMinutes(10_000 + random.nextInt(10_000)) : null;
+            int limit = 1 + random.nextInt(50);
+
+            List<String> terms = NewsText.terms(query);
+            List<NewsArticleDTO> expected = rows.stream()
+                    .filter(a -> docTerms.get(a.getId()).containsAll(terms)
+                            && (currency == null || docCodes.get(a.getId()).contains(currency))
+                            && (category == null || category.equals(a.getCategory()))
+                            && (label == null || label.equals(a.getSentimentLabel()))
+                            && (from == null || !a.getPublishedAt().isBefore(from))
+                            && (to == null || a.getPublishedAt().isBefore(to)))
+                    .sorted(Comparator.comparing(NewsArticleDTO::getPublishedAt)
+                            .thenComparing(NewsArticleDTO::getId).reversed())
+                    .toList();
+
+            SearchResult result = index.search(query, currency, category, label, from, to, limit);
+            assertEquals(expected.size(), result.total(), "total for query " + q);
+            assertEquals(expected.subList(0, Math.min(limit, expected.size())).stream().map(NewsArticleDTO::getId).toList(),
+                    ids(result), "hits for query " + q);
+        }
+        assertEquals(rows.size(), index.size());
+    }
+}
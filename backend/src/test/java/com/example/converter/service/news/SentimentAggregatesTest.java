@@ -0,0 +1,193 @@
+package com.example.converter.service.news;
+
+import com.example.converter.dto.news.NewsArticleDTO;
+import com.example.converter.service.news.SentimentAggregates.Snapshot;
+import com.example.converter.service.news.SentimentAggregates.Window;
+import com.example.converter.service.news.SentimentAggregates.WindowStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class SentimentAggregatesTest {
+
+    private static final String[] CURRENCIES = {"USD", "EUR", "JPY", "VND"};
+
+    private SentimentAggregates aggregates;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        aggregates = new SentimentAggregates(mock(JdbcTemplate.class));
+        now = Instant.now().getEpochSecond();
+    }
+
+    private static NewsArticleDTO article(long id, String title, double score, long epochSecond) {
+        return new NewsArticleDTO(id, title, null, "https://news.example/" + id, "forex", null, score,
+                LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC), null);
+    }
+
+    private static WindowStats stats(Snapshot snapshot, Window window) {
+        return snapshot.windows().get(window.label());
+    }
+
+    @Test
+    void decayedMeanWeighsRecentArticlesMore() {
+        long hour = Duration.ofHours(1).toSeconds();
+        aggregates.record(List.of(
+                article(1, "USD rallies", 1.0, now),
+                article(2, "USD slides", -1.0, now - hour)));
+
+        Snapshot usd = aggregates.currency("usd");
+        double w = Math.exp(-1.0);
+        WindowStats h1 = stats(usd, Window.H1);
+        assertEquals((1.0 - w) / (1.0 + w), h1.decayed(), 1e-9);
+        // the article exactly one hour old sits in the minute bucket that just left the 1h window
+        assertEquals(1, h1.count());
+        assertEquals(1.0 + w, h1.weight(), 1e-3);
+
+        WindowStats d7 = stats(usd, Window.D7);
+        double wd = Math.exp(-1.0 / 168);
+        assertEquals((1.0 - wd) / (1.0 + wd), d7.decayed(), 1e-9);
+        assertEquals(2, d7.count());
+        assertEquals(0.0, d7.mean(), 1e-12);
+    }
+
+    @Test
+    void outOfOrderArrivalMatchesInOrder() {
+        SentimentAggregates reversed = new SentimentAggregates(mock(JdbcTemplate.class));
+        List<NewsArticleDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rows.add(article(i + 1, "EUR outlook", (i % 7) / 3.0 - 1.0, now - i * 1800L));
+        }
+        aggregates.record(rows);
+        List<NewsArticleDTO> backwards = new ArrayList<>(rows);
+        Collections.reverse(backwards);
+        reversed.record(backwards);
+
+        for (Window window : Window.values()) {
+            WindowStats a = stats(aggregates.currency("EUR"), window);
+            WindowStats b = stats(reversed.currency("EUR"), window);
+            assertEquals(a.count(), b.count());
+            assertEquals(a.decayed(), b.decayed(), 1e-9);
+            assertEquals(a.weight(), b.weight(), 1e-3 * a.weight());
+        }
+    }
+
+    @Test
+    void expiredBucketsLeaveTheirWindows() {
+        aggregates.record(List.of(
+                article(1, "JPY weakens", 0.5, now - 2 * 3600),
+                article(2, "JPY weakens further", -0.5, now - 30 * 3600),
+                // outside the 7d horizon: not counted anywhere
+                article(3, "JPY in 2019", 1.0, now - 8 * 24 * 3600)));
+
+        Snapshot jpy = aggregates.currency("JPY");
+        assertEquals(0, stats(jpy, Window.H1).count());
+        assertNull(stats(jpy, Window.H1).mean());
+        assertEquals(1, stats(jpy, Window.H24).count());
+        assertEquals(0.5, stats(jpy, Window.H24).mean(), 1e-12);
+        assertEquals(2, stats(jpy, Window.D7).count());
+        assertEquals(0.0, stats(jpy, Window.D7).mean(), 1e-12);
+    }
+
+    @Test
+    void reusedMinuteSlotDropsTheOlderMinute() {
+        // an hour apart: both fall in the same minute slot of the ring
+        aggregates.record(List.of(article(1, "VND steady", -1.0, now - 3600)));
+        aggregates.record(List.of(article(2, "VND firm", 0.8, now)));
+        // an article for the evicted minute arriving late is not resurrected into it
+        aggregates.record(List.of(article(3, "VND late report", 1.0, now - 3600)));
+
+        WindowStats h1 = stats(aggregates.currency("VND"), Window.H1);
+        assertEquals(1, h1.count());
+        assertEquals(0.8, h1.mean(), 1e-12);
+        assertEquals(3, stats(aggregates.currency("VND"), Window.D7).count());
+    }
+
+    @Test
+    void duplicateIdsAreCountedOnce() {
+        NewsArticleDTO a = article(7, "USD/EUR climbs", 0.4, now - 60);
+        aggregates.record(List.of(a, a));
+        aggregates.record(List.of(article(7, "USD/EUR climbs (updated)", -1.0, now - 30)));
+        aggregates.prune();
+        aggregates.record(List.of(a));
+
+        assertEquals(1, stats(aggregates.currency("USD"), Window.H24).count());
+        assertEquals(0.4, stats(aggregates.currency("USD"), Window.H24).mean(), 1e-12);
+        assertEquals(1, stats(aggregates.pair("EUR", "USD"), Window.H24).count());
+        assertEquals(stats(aggregates.pair("EUR", "USD"), Window.D7), stats(aggregates.pair("usd", "eur"), Window.D7));
+    }
+
+    @Test
+    void matchesBruteForce() {
+        Random random = new Random(7);
+        List<NewsArticleDTO> rows = new ArrayList<>();
+        long horizon = 7 * 24 * 3600L;
+        for (long id = 1; id <= 5000; id++) {
+            StringBuilder title = new StringBuilder("Markets:");
+            for (String code : CURRENCIES) {
+                if (random.nextInt(3) == 0) {
+                    title.append(' ').append(code);
+                }
+            }
+            long t = now - 60 - (long) (random.nextDouble() * (horizon - 120));
+            rows.add(article(id, title.toString(), Math.round((random.nextDouble() * 2 - 1) * 1000) / 1000.0, t));
+        }
+        Collections.shuffle(rows, random);
+        aggregates.record(rows);
+
+        for (String code : CURRENCIES) {
+            check(aggregates.currency(code), rows, a -> a.getTitle().contains(code));
+        }
+        check(aggregates.pair("VND", "USD"), rows, a -> a.getTitle().contains("USD") && a.getTitle().contains("VND"));
+        check(aggregates.pair("EUR", "JPY"), rows, a -> a.getTitle().contains("EUR") && a.getTitle().contains("JPY"));
+    }
+
+    private static void check(Snapshot snapshot, List<NewsArticleDTO> rows, Predicate<NewsArticleDTO> matches) {
+        long at = snapshot.asOf().getEpochSecond();
+        List<NewsArticleDTO> keyed = rows.stream().filter(matches).toList();
+        long newest = keyed.stream().mapToLong(a -> a.getPublishedAt().toEpochSecond(ZoneOffset.UTC)).max().orElseThrow();
+        long[] spans = {3600, 24 * 3600, 7 * 24 * 3600};
+        for (Window window : Window.values()) {
+            long span = spans[window.ordinal()];
+            // the bucket a timestamp falls in: minutes for 1h, hours for 24h and 7d
+            long unit = window == Window.H1 ? 60 : 3600;
+            long count = 0;
+            double sum = 0;
+            double ewSum = 0;
+            double ewWeight = 0;
+            for (NewsArticleDTO a : keyed) {
+                long t = a.getPublishedAt().toEpochSecond(ZoneOffset.UTC);
+                if (Math.floorDiv(t, unit) > Math.floorDiv(at, unit) - span / unit) {
+                    count++;
+                    sum += a.getSentimentScore();
+                }
+                double w = Math.exp(-(double) (newest - t) / span);
+                ewSum += w * a.getSentimentScore();
+                ewWeight += w;
+            }
+            WindowStats stats = stats(snapshot, window);
+            String where = snapshot.key() + " " + window.label();
+            assertEquals(count, stats.count(), where);
+            if (count > 0) {
+                assertEquals(sum / count, stats.mean(), 1e-9, where);
+            }
+            assertEquals(ewSum / ewWeight, stats.decayed(), 1e-9, where);
+            assertEquals(ewWeight * Math.exp(-(double) (at - newest) / span), stats.weight(), 1e-9 * ewWeight, where);
+        }
+    }
+}
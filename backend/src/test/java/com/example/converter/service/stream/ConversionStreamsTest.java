@@ -0,0 +1,115 @@
+package com.example.converter.service.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConversionStreamsTest {
+
+    private static final String[] FIELDS = {"amount", "fromCurrency", "toCurrency", "convertedAmount"};
+    private static final Map<String, Double> RATES = Map.of("USDEUR", 0.5, "USDGBP", 0.25);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConversionStreams streams = new ConversionStreams(new SimpleMeterRegistry(), objectMapper);
+
+    private static double convert(double amount, String from, String to) {
+        if (to.equals("JPY")) {
+            // what a failed rate lookup looks like through a CompletableFuture join
+            throw new CompletionException(new IllegalStateException("rate service unavailable"));
+        }
+        Double rate = RATES.get(from + to);
+        if (rate == null) {
+            throw new IllegalArgumentException("Unknown currency pair " + from + to);
+        }
+        return amount * rate;
+    }
+
+    private List<JsonNode> ndjson(String input, StreamStats[] stats) throws Exception {
+        StringWriter out = new StringWriter();
+        stats[0] = streams.pipe("currency", StreamFormat.NDJSON, new BufferedReader(new StringReader(input)), out,
+                FIELDS, "USD", "EUR", ConversionStreamsTest::convert);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString().split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    void ndjsonSkipsBlankLinesAndReportsBadRowsInPlace() throws Exception {
+        String input = String.join("\n",
+                "{\"amount\": 10}",
+                "",
+                "   ",
+                "{\"amount\": 4, \"toCurrency\": \"GBP\"}",
+                "{\"amount\": 1,",
+                "{\"amount\": 2, \"toCurrency\": \"XYZ\"}",
+                "{\"amount\": \"two\"}",
+                "{\"amount\": 3, \"toCurrency\": \"JPY\"}",
+                "{\"amount\": 8}");
+        StreamStats[] stats = new StreamStats[1];
+        List<JsonNode> lines = ndjson(input, stats);
+
+        assertEquals(7, lines.size());
+        assertEquals(5.0, lines.get(0).get("convertedAmount").asDouble());
+        assertEquals(1.0, lines.get(1).get("convertedAmount").asDouble());
+        assertEquals("GBP", lines.get(1).get("toCurrency").asText());
+
+        assertEquals(5, lines.get(2).get("line").asInt());
+        assertTrue(lines.get(2).get("error").asText().startsWith("Invalid JSON"));
+
+        assertEquals(6, lines.get(3).get("line").asInt());
+        assertEquals("XYZ", lines.get(3).get("toCurrency").asText());
+        assertEquals("Unknown currency pair USDXYZ", lines.get(3).get("error").asText());
+
+        assertEquals(7, lines.get(4).get("line").asInt());
+        assertEquals("Field 'amount' must be a number", lines.get(4).get("error").asText());
+
+        // a non-IllegalArgumentException failure is an error row too, and the stream carries on
+        assertEquals(8, lines.get(5).get("line").asInt());
+        assertEquals("rate service unavailable", lines.get(5).get("error").asText());
+        assertEquals(4.0, lines.get(6).get("convertedAmount").asDouble());
+
+        assertEquals(3, stats[0].rows());
+        assertEquals(4, stats[0].errors());
+    }
+
+    @Test
+    void csvSkipsHeaderAndBlankLines() throws Exception {
+        String input = String.join("\n",
+                "amount,fromCurrency,toCurrency",
+                "",
+                "10,USD,EUR",
+                "abc,USD,EUR",
+                "5,USD,XYZ",
+                "7,USD,JPY",
+                "4");
+        StringWriter out = new StringWriter();
+        StreamStats stats = streams.pipe("currency", StreamFormat.CSV, new BufferedReader(new StringReader(input)), out,
+                FIELDS, "USD", "GBP", ConversionStreamsTest::convert);
+
+        assertEquals(List.of(
+                "amount,fromCurrency,toCurrency,convertedAmount,error",
+                "10.0,USD,EUR,5.0,",
+                "abc,USD,EUR,,\"line 4: Value 'abc' is not a number\"",
+                "5,USD,XYZ,,\"line 5: Unknown currency pair USDXYZ\"",
+                "7,USD,JPY,,\"line 6: rate service unavailable\"",
+                "4.0,USD,GBP,1.0,"), List.of(out.toString().split("\n")));
+        assertEquals(2, stats.rows());
+        assertEquals(3, stats.errors());
+    }
+}
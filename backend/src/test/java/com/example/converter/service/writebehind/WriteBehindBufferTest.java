@@ -0,0 +1,137 @@
+package com.example.converter.service.writebehind;
+
+import com.example.converter.config.WriteBehindProperties;
+import com.example.converter.config.WriteBehindProperties.Backpressure;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindBufferTest {
+
+    @TempDir
+    Path dir;
+
+    private WriteBehindProperties props() {
+        WriteBehindProperties props = new WriteBehindProperties();
+        props.setCapacity(8);
+        props.setBatchSize(2);
+        props.setFlushIntervalMs(20);
+        props.setBackpressure(Backpressure.SPILL);
+        props.setSpillDir(dir.toString());
+        props.setShutdownTimeoutMs(2000);
+        return props;
+    }
+
+    @Test
+    void replaySkipsUndecodableLineAndNeverReflushes() throws Exception {
+        Files.write(dir.resolve("rows.spill"), List.of("1", "2", "3", "4x", "5", "6"), StandardCharsets.UTF_8);
+        List<Integer> sunk = Collections.synchronizedList(new ArrayList<>());
+
+        WriteBehindBuffer<Integer> buffer = new WriteBehindBuffer<>("rows", props(), new SimpleMeterRegistry(),
+                sunk::addAll, String::valueOf, Integer::parseInt);
+        // several flush intervals: a stuck replay file would be read again on each of them
+        Thread.sleep(300);
+        buffer.close();
+
+        assertEquals(List.of(1, 2, 3, 5, 6), sunk);
+        assertEquals(List.of("4x"), Files.readAllLines(dir.resolve("rows.rejected")));
+        assertFalse(Files.exists(dir.resolve("rows.replay")));
+        assertFalse(Files.exists(dir.resolve("rows.spill")));
+    }
+
+    @Test
+    void spilledRowsReplayOnceSinkRecovers() throws Exception {
+        AtomicBoolean healthy = new AtomicBoolean(false);
+        List<Integer> sunk = Collections.synchronizedList(new ArrayList<>());
+        WriteBehindBuffer<Integer> buffer = new WriteBehindBuffer<>("rows", props(), new SimpleMeterRegistry(), batch -> {
+            if (!healthy.get()) {
+                throw new IllegalStateException("database down");
+            }
+            sunk.addAll(batch);
+        }, String::valueOf, Integer::parseInt);
+
+        for (int i = 1; i <= 4; i++) {
+            assertTrue(buffer.submit(i));
+        }
+        Thread.sleep(150);
+        assertTrue(sunk.isEmpty());
+        // a line cut off mid-write by a crash
+        // CREATE: a replay running right now has moved the spill file aside
+        Files.writeString(dir.resolve("rows.spill"), "7\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        Files.writeString(dir.resolve("rows.spill"), "{trunc\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+        healthy.set(true);
+        Thread.sleep(300);
+        buffer.close();
+
+        List<Integer> sorted = new ArrayList<>(sunk);
+        Collections.sort(sorted);
+        assertEquals(List.of(1, 2, 3, 4, 7), sorted);
+        assertEquals(List.of("{trunc"), Files.readAllLines(dir.resolve("rows.rejected")));
+        assertFalse(Files.exists(dir.resolve("rows.replay")));
+    }
+
+    @Test
+    void replayRejectsRowsTheSinkAlwaysRefuses() throws Exception {
+        Files.write(dir.resolve("rows.spill"), List.of("1", "2", "3", "4", "5", "6", "7"), StandardCharsets.UTF_8);
+        List<Integer> sunk = Collections.synchronizedList(new ArrayList<>());
+        // 4 fails inside a batch, 7 ends up alone in the last one
+        WriteBehindBuffer<Integer> buffer = new WriteBehindBuffer<>("rows", props(), new SimpleMeterRegistry(), batch -> {
+            if (batch.contains(4) || batch.contains(7)) {
+                throw new IllegalArgumentException("numeric field overflow");
+            }
+            sunk.addAll(batch);
+        }, String::valueOf, Integer::parseInt);
+        // several flush intervals: a refused row put back into the spill file would be replayed on each of them
+        Thread.sleep(300);
+        buffer.close();
+
+        assertEquals(List.of(1, 2, 3, 5, 6), sunk);
+        assertEquals(List.of("4", "7"), Files.readAllLines(dir.resolve("rows.rejected")));
+        assertFalse(Files.exists(dir.resolve("rows.replay")));
+        assertFalse(Files.exists(dir.resolve("rows.spill")));
+    }
+
+    @Test
+    void failedBatchOnlyLosesTheRefusedRow() throws Exception {
+        WriteBehindProperties props = props();
+        props.setBatchSize(6);
+        props.setFlushIntervalMs(200);
+        props.setBackpressure(Backpressure.DROP);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        List<Integer> sunk = Collections.synchronizedList(new ArrayList<>());
+        WriteBehindBuffer<Integer> buffer = new WriteBehindBuffer<>("rows", props, registry, batch -> {
+            if (batch.contains(4)) {
+                throw new IllegalArgumentException("numeric field overflow");
+            }
+            sunk.addAll(batch);
+        }, String::valueOf, Integer::parseInt);
+
+        for (int i = 1; i <= 6; i++) {
+            assertTrue(buffer.submit(i));
+        }
+        Thread.sleep(400);
+        buffer.close();
+
+        List<Integer> sorted = new ArrayList<>(sunk);
+        Collections.sort(sorted);
+        assertEquals(List.of(1, 2, 3, 5, 6), sorted);
+        assertEquals(List.of("4"), Files.readAllLines(dir.resolve("rows.rejected")));
+        assertEquals(1.0, registry.get("writebehind.items.dropped").counter().count());
+    }
+}
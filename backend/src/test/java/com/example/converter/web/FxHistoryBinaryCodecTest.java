@@ -0,0 +1,113 @@
+package com.example.converter.web;
+
+import com.example.converter.dto.exchange.FxHistoryResponse;
+import com.example.converter.dto.exchange.FxPointDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FxHistoryBinaryCodecTest {
+
+    private static byte[] encode(FxHistoryResponse history) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FxHistoryBinaryCodec.encode(history, out);
+        return out.toByteArray();
+    }
+
+    private static FxHistoryResponse roundTrip(FxHistoryResponse history) throws IOException {
+        return FxHistoryBinaryCodec.decode(new ByteArrayInputStream(encode(history)));
+    }
+
+    private static FxPointDTO point(String date, String rate) {
+        return new FxPointDTO(LocalDate.parse(date), new BigDecimal(rate));
+    }
+
+    private static void assertSamePoints(List<FxPointDTO> expected, List<FxPointDTO> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getDate(), actual.get(i).getDate(), "date " + i);
+            assertEquals(0, expected.get(i).getRate().compareTo(actual.get(i).getRate()),
+                    "rate " + i + ": " + expected.get(i).getRate() + " vs " + actual.get(i).getRate());
+        }
+    }
+
+    @Test
+    void roundTripsNegativeDeltas() throws IOException {
+        // falling rates and dates that go backwards both need negative zigzag deltas
+        List<FxPointDTO> points = List.of(
+                point("2025-03-10", "25410.5000"),
+                point("2025-03-11", "25100.2500"),
+                point("2025-03-09", "25399.0000"),
+                point("1969-12-31", "0.0001"),
+                point("1970-01-02", "0.0000"));
+        FxHistoryResponse decoded = roundTrip(new FxHistoryResponse("USD", "VND", points));
+
+        assertEquals("USD", decoded.getBase());
+        assertEquals("VND", decoded.getQuote());
+        assertSamePoints(points, decoded.getHistory());
+    }
+
+    @Test
+    void usesTheLargestScaleOfTheSeries() throws IOException {
+        List<FxPointDTO> points = List.of(
+                point("2025-01-01", "1.1"),
+                point("2025-01-02", "1.123456"),
+                point("2025-01-03", "150"),
+                point("2025-01-04", "0.00042"));
+        FxHistoryResponse decoded = roundTrip(new FxHistoryResponse("EUR", "USD", points));
+
+        assertSamePoints(points, decoded.getHistory());
+        decoded.getHistory().forEach(p -> assertEquals(6, p.getRate().scale()));
+    }
+
+    @Test
+    void roundsRatesBeyondTheMaximumScale() throws IOException {
+        List<FxPointDTO> points = List.of(point("2025-01-01", "0.12345678901234567"));
+        FxHistoryResponse decoded = roundTrip(new FxHistoryResponse("JPY", "EUR", points));
+
+        assertEquals(new BigDecimal("0.123456789012"), decoded.getHistory().get(0).getRate());
+    }
+
+    @Test
+    void roundTripsAnEmptySeries() throws IOException {
+        byte[] bytes = encode(new FxHistoryResponse("GBP", "USD", List.of()));
+        FxHistoryResponse decoded = FxHistoryBinaryCodec.decode(new ByteArrayInputStream(bytes));
+
+        // magic + codes + scale + zero count
+        assertEquals(4 + 6 + 1 + 1, bytes.length);
+        assertEquals("GBP", decoded.getBase());
+        assertTrue(decoded.getHistory().isEmpty());
+    }
+
+    @Test
+    void rejectsBadMagic() throws IOException {
+        byte[] bytes = encode(new FxHistoryResponse("USD", "EUR", List.of(point("2025-01-01", "0.91"))));
+        byte[] json = "{\"base\":\"USD\"}".getBytes();
+        byte[] version2 = bytes.clone();
+        version2[3] = 2;
+
+        assertThrows(IOException.class, () -> FxHistoryBinaryCodec.decode(new ByteArrayInputStream(json)));
+        assertThrows(IOException.class, () -> FxHistoryBinaryCodec.decode(new ByteArrayInputStream(version2)));
+        assertThrows(EOFException.class, () -> FxHistoryBinaryCodec.decode(new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    void rejectsTruncatedPayload() throws IOException {
+        byte[] bytes = encode(new FxHistoryResponse("USD", "EUR",
+                List.of(point("2025-01-01", "0.91"), point("2025-01-02", "0.92"))));
+
+        assertThrows(EOFException.class,
+                () -> FxHistoryBinaryCodec.decode(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1))));
+    }
+}
@@ -98,7 +98,17 @@ const NewsAnalysisComponent = () => {
     try {
       setLoading(true);
       setError('');
-      await api.post(`/api/news/refresh/pair?base=${encodeURIComponent(base)}&quote=${encodeURIComponent(quote)}`);
+      const { data: job } = await api.post(`/api/news/refresh/pair?base=${encodeURIComponent(base)}&quote=${encodeURIComponent(quote)}`);
+      // the refresh runs as a background job; wait for it (up to ~2 minutes) before reloading
+      let status = job?.status;
+      for (let i = 0; i < 60 && job?.id && (status === 'QUEUED' || status === 'RUNNING'); i++) {
+        await new Promise((resolve) => setTimeout(resolve, 2000));
+        const { data } = await api.get(`/api/news/refresh/${job.id}`);
+        status = data.status;
+      }
+      if (status === 'FAILED') {
+        setError('Failed to refresh news for pair');
+      }
       await fetchNews();
     } catch (err) {
       setError('Failed to refresh news for pair');
@@ -26,6 +26,16 @@ HISTORY_SOURCE_AUTH = os.getenv("HISTORY_SOURCE_AUTH", "none").lower()
 HISTORY_SOURCE_API_KEY_HEADER = os.getenv("HISTORY_SOURCE_API_KEY_HEADER", "X-API-Key")
 HISTORY_SOURCE_API_KEY = os.getenv("HISTORY_SOURCE_API_KEY", "").strip()
 HISTORY_SOURCE_BEARER = os.getenv("HISTORY_SOURCE_BEARER", "").strip()
+# json | binary (application/x-fx-history, compact columnar encoding served by the backend)
+HISTORY_SOURCE_FORMAT = os.getenv("HISTORY_SOURCE_FORMAT", "json").lower()
+FX_HISTORY_MEDIA_TYPE = "application/x-fx-history"
+
+# Rolling news sentiment served by the backend, used when a request carries neither
+# sentiment_adjust nor news_data, e.g. http://backend:8080/api/internal/news/sentiment?base={base}&quote={quote}
+SENTIMENT_SOURCE_URL = os.getenv("SENTIMENT_SOURCE_URL", "").strip()
+SENTIMENT_SOURCE_WINDOW = os.getenv("SENTIMENT_SOURCE_WINDOW", "24h")
+# minimum decayed article weight in the window before the aggregate is trusted
+SENTIMENT_SOURCE_MIN_WEIGHT = float(os.getenv("SENTIMENT_SOURCE_MIN_WEIGHT", "1.0"))
 
 # Preprocess controls
 FILL_MISSING_DAYS = os.getenv("FILL_MISSING_DAYS", "false").lower() == "true"
@@ -81,11 +91,46 @@ def _requests_session():
     s.mount("https://", HTTPAdapter(max_retries=retry))
     return s
 
+def _decode_fx_history(buf: bytes):
+    """Decode an application/x-fx-history payload (see FxHistoryBinaryCodec in the backend)."""
+    if buf[:4] != b"FXH\x01":
+        raise ValueError("not an fx-history v1 payload")
+    pos = 10
+    scale = buf[pos]
+    pos += 1
+
+    def varint():
+        nonlocal pos
+        v, shift = 0, 0
+        while True:
+            b = buf[pos]
+            pos += 1
+            v |= (b & 0x7F) << shift
+            if not b & 0x80:
+                return v
+            shift += 7
+
+    def unzigzag(v):
+        return (v >> 1) ^ -(v & 1)
+
+    count = varint()
+    days, d = [], 0
+    for _ in range(count):
+        d += unzigzag(varint())
+        days.append(d)
+    out, r = [], 0
+    epoch = datetime(1970, 1, 1)
+    for day in days:
+        r += unzigzag(varint())
+        out.append({"date": (epoch + timedelta(days=day)).strftime("%Y-%m-%d"), "rate": r / (10 ** scale)})
+    return out
+
 def _fetch_history_external(base: str, quote: str):
     if not HISTORY_SOURCE_URL:
         return []
     url = HISTORY_SOURCE_URL.format(base=base, quote=quote)
-    headers = {"Accept": "application/json"}
+    accept = f"{FX_HISTORY_MEDIA_TYPE}, application/json;q=0.9" if HISTORY_SOURCE_FORMAT == "binary" else "application/json"
+    headers = {"Accept": accept}
 
     auth_headers = get_internal_api_headers()
     headers.update(auth_headers or {})
@@ -106,6 +151,8 @@ def _fetch_history_external(base: str, quote: str):
             red_headers = {k: v for k, v in headers.items() if k != HISTORY_SOURCE_API_KEY_HEADER}
             logger.warning("History fetch non-200 for %s->%s: %s (headers: %s)", base, quote, r.status_code, red_headers)
             return []
+        if r.headers.get("Content-Type", "").startswith(FX_HISTORY_MEDIA_TYPE):
+            return _decode_fx_history(r.content)
         j = r.json()
         if isinstance(j, list):
             return j
@@ -121,6 +168,30 @@ def _fetch_history_external(base: str, quote: str):
         logger.warning("History fetch failed for %s->%s: %s", base, quote, str(e))
         return []
 
+def _fetch_sentiment_external(base: str, quote: str):
+    """Decayed pair sentiment from the backend aggregates, or None if unavailable or too thin."""
+    if not SENTIMENT_SOURCE_URL:
+        return None
+    headers = {"Accept": "application/json"}
+    auth_headers = get_internal_api_headers()
+    headers.update(auth_headers or {})
+    if not auth_headers and HISTORY_SOURCE_AUTH == "apikey" and HISTORY_SOURCE_API_KEY:
+        headers[HISTORY_SOURCE_API_KEY_HEADER] = HISTORY_SOURCE_API_KEY
+    elif not auth_headers and HISTORY_SOURCE_AUTH == "bearer" and HISTORY_SOURCE_BEARER:
+        headers["Authorization"] = f"Bearer {HISTORY_SOURCE_BEARER}"
+    try:
+        r = _requests_session().get(SENTIMENT_SOURCE_URL.format(base=base, quote=quote), headers=headers, timeout=5)
+        if r.status_code != 200:
+            logger.warning("Sentiment fetch non-200 for %s->%s: %s", base, quote, r.status_code)
+            return None
+        w = (r.json().get("windows") or {}).get(SENTIMENT_SOURCE_WINDOW) or {}
+        if w.get("decayed") is None or float(w.get("weight") or 0.0) < SENTIMENT_SOURCE_MIN_WEIGHT:
+            return None
+        return max(-1.0, min(1.0, float(w["decayed"])))
+    except Exception as e:
+        logger.warning("Sentiment fetch failed for %s->%s: %s", base, quote, str(e))
+        return None
+
 def _preprocess_history(df: pd.DataFrame) -> pd.DataFrame:
     df = df.copy()
     df["date"] = pd.to_datetime(df["date"], errors="raise")
@@ -317,6 +388,12 @@ def predict():
                 sentiment_adj = float(sentiment_adj)
             except (ValueError, TypeError):
                 return jsonify({'error': 'sentiment_adjust must be a valid number'}), 400
+        elif base and quote:
+            decayed = _fetch_sentiment_external(base, quote)
+            if decayed is not None:
+                # same damping as news_data without an explicit adjustment
+                sentiment_adj = decayed * 0.5
+                logger.info("Backend sentiment applied: decayed=%.3f, final_adj=%.3f", decayed, sentiment_adj)
 
         if not base or not quote:
             return jsonify({'error':'base_currency and target_currency are required'}), 400
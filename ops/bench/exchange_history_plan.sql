@@ -0,0 +1,74 @@
+-- Plan benchmark for the pair/time-range raw history read (RawHistoryService page query).
+-- Seeds 10M rows into a scratch schema, then compares the old upper()/date-cast shape with the
+-- keyset page query before and after idx_erh_pair_time. Run with ops/bench/exchange_history_plan.sh.
+\set ON_ERROR_STOP on
+\timing on
+
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+
+CREATE TABLE bench.exchange_rate_history (
+  id              BIGSERIAL PRIMARY KEY,
+  base_currency   VARCHAR(3)     NOT NULL,
+  target_currency VARCHAR(3)     NOT NULL,
+  rate            NUMERIC(10, 4) NOT NULL,
+  user_id         BIGINT,
+  recorded_at     TIMESTAMP      NOT NULL
+);
+
+-- 10M rows over 12 currencies (132 pairs) spread across two years, already upper-case
+-- as the write path now guarantees.
+INSERT INTO bench.exchange_rate_history (base_currency, target_currency, rate, recorded_at)
+SELECT c.codes[1 + (g % 12)],
+       c.codes[1 + ((g / 12 % 11 + 1 + g % 12) % 12)],
+       round((0.5 + random())::numeric, 4),
+       TIMESTAMP '2024-01-01' + (random() * INTERVAL '730 days')
+FROM generate_series(1, :rows) AS g,
+     (SELECT ARRAY['USD','EUR','JPY','GBP','VND','AUD','CAD','CHF','CNY','SGD','KRW','THB'] AS codes) c;
+
+ANALYZE bench.exchange_rate_history;
+
+\echo '=== old query, no index ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench.exchange_rate_history h
+WHERE upper(h.base_currency) = upper('usd') AND upper(h.target_currency) = upper('eur')
+  AND CAST(h.recorded_at AS date) >= DATE '2025-01-01'
+  AND CAST(h.recorded_at AS date) <= DATE '2025-06-30'
+ORDER BY h.recorded_at ASC;
+
+\echo '=== new query, no index ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, recorded_at, rate FROM bench.exchange_rate_history h
+WHERE h.base_currency = 'USD' AND h.target_currency = 'EUR'
+  AND h.recorded_at >= TIMESTAMP '2025-01-01' AND h.recorded_at < TIMESTAMP '2025-07-01'
+  AND (h.recorded_at, h.id) > (TIMESTAMP '2025-03-01', 0)
+ORDER BY h.recorded_at, h.id
+LIMIT 1001;
+
+CREATE INDEX idx_erh_pair_time ON bench.exchange_rate_history (base_currency, target_currency, recorded_at, id);
+ANALYZE bench.exchange_rate_history;
+
+-- upper() and the date cast hide the columns from the index: still a full scan
+\echo '=== old query, with index ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM bench.exchange_rate_history h
+WHERE upper(h.base_currency) = upper('usd') AND upper(h.target_currency) = upper('eur')
+  AND CAST(h.recorded_at AS date) >= DATE '2025-01-01'
+  AND CAST(h.recorded_at AS date) <= DATE '2025-06-30'
+ORDER BY h.recorded_at ASC;
+
+-- expected: Limit -> Index Scan using idx_erh_pair_time with the (recorded_at, id) cursor in the Index Cond,
+-- no sort, stops after the page
+\echo '=== new query, with index ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id, recorded_at, rate FROM bench.exchange_rate_history h
+WHERE h.base_currency = 'USD' AND h.target_currency = 'EUR'
+  AND h.recorded_at >= TIMESTAMP '2025-01-01' AND h.recorded_at < TIMESTAMP '2025-07-01'
+  AND (h.recorded_at, h.id) > (TIMESTAMP '2025-03-01', 0)
+ORDER BY h.recorded_at, h.id
+LIMIT 1001;
+
+\if :keep
+\else
+DROP SCHEMA bench CASCADE;
+\endif
@@ -0,0 +1,90 @@
+#!/usr/bin/env bash
+# Compare platform-thread and virtual-thread execution modes with a slow FX upstream.
+#
+# Needs: JDK 21, k6, jq, python3, and postgres + redis from docker-compose
+# (docker compose up -d postgres redis). Every conversion misses the rate cache
+# (ttl 0) so each request waits FX_DELAY_MS on the upstream.
+#
+#   ops/loadtest/compare.sh                      # default levels
+#   LEVELS="100 400 1600" FX_DELAY_MS=1500 ops/loadtest/compare.sh
+#
+# Output: one row per mode and concurrency level, then the highest level per mode
+# that stays under 1% errors and p99 < SLO_MS ("max concurrency").
+set -euo pipefail
+
+HERE="$(cd "$(dirname "$0")" && pwd)"
+ROOT="$(cd "$HERE/../.." && pwd)"
+RESULTS="${RESULTS:-$HERE/results}"
+LEVELS="${LEVELS:-100 200 400 800 1600 3200}"
+DURATION="${DURATION:-45s}"
+ENDPOINT="${ENDPOINT:-/api/convert/currency}"
+export FX_DELAY_MS="${FX_DELAY_MS:-800}"
+SLO_MS="${SLO_MS:-$((FX_DELAY_MS * 3))}"
+PORT=8080
+
+mkdir -p "$RESULTS"
+rm -f "$RESULTS"/*.json
+
+python3 "$HERE/slow_fx_upstream.py" &
+STUB_PID=$!
+APP_PID=
+cleanup() {
+  [ -n "$APP_PID" ] && kill "$APP_PID" 2>/dev/null || true
+  kill "$STUB_PID" 2>/dev/null || true
+}
+trap cleanup EXIT
+
+(cd "$ROOT/backend" && ./mvnw -q -B -Pjava21 package -DskipTests)
+JAR="$(ls "$ROOT"/backend/target/converter-*.jar | grep -v plain | head -1)"
+
+for MODE in platform virtual-threads; do
+  PROFILE=""
+  [ "$MODE" = "virtual-threads" ] && PROFILE="--spring.profiles.active=virtual-threads"
+
+  EXTERNAL_CURRENCY_API_URL="http://localhost:8099/" \
+  APP_FX_BASE_RATES_TTL_SECONDS=0 \
+  APP_FX_BASE_RATES_MAX_STALE_SECONDS=0 \
+  JPA_SHOW_SQL=false \
+  LOG_LEVEL_APP=WARN \
+    java -jar "$JAR" $PROFILE > "$RESULTS/$MODE.log" 2>&1 &
+  APP_PID=$!
+
+  for _ in $(seq 1 90); do
+    curl -fs "http://localhost:$PORT/actuator/health" > /dev/null && break
+    sleep 1
+  done
+
+  for VUS in $LEVELS; do
+    echo "== $MODE, $VUS concurrent"
+    k6 run --quiet -e BASE_URL="http://localhost:$PORT" -e ENDPOINT="$ENDPOINT" \
+      -e VUS="$VUS" -e DURATION="$DURATION" -e SUMMARY="$RESULTS/$MODE-$VUS.json" \
+      "$HERE/convert-currency.js" || true
+  done
+
+  kill "$APP_PID"
+  wait "$APP_PID" 2>/dev/null || true
+  APP_PID=
+done
+
+printf '\n%-16s %6s %10s %10s %9s %8s\n' mode vus p50_ms p99_ms rps errors
+for MODE in platform virtual-threads; do
+  for VUS in $LEVELS; do
+    f="$RESULTS/$MODE-$VUS.json"
+    [ -f "$f" ] || continue
+    jq -r --arg m "$MODE" '[$m, .vus, (.p50|floor), (.p99|floor), (.rps|floor), ((.errorRate*100*100|floor)/100|tostring + "%")] | @tsv' "$f" \
+      | awk -F'\t' '{ printf "%-16s %6s %10s %10s %9s %8s\n", $1, $2, $3, $4, $5, $6 }'
+  done
+done
+
+echo
+for MODE in platform virtual-threads; do
+  MAX=0
+  for VUS in $LEVELS; do
+    f="$RESULTS/$MODE-$VUS.json"
+    [ -f "$f" ] || continue
+    if jq -e --argjson slo "$SLO_MS" '.errorRate < 0.01 and .p99 < $slo' "$f" > /dev/null; then
+      MAX=$VUS
+    fi
+  done
+  echo "$MODE: max concurrency with p99 < ${SLO_MS} ms and < 1% errors: $MAX"
+done
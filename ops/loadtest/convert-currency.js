@@ -0,0 +1,45 @@
+// k6 closed-model load: VUS virtual users each keep exactly one conversion in flight,
+// so VUS is the offered concurrency. Summary goes to SUMMARY (JSON) for compare.sh.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ENDPOINT = __ENV.ENDPOINT || '/api/convert/currency';
+const PAIRS = [
+  ['USD', 'EUR'], ['EUR', 'GBP'], ['GBP', 'JPY'], ['JPY', 'VND'],
+  ['AUD', 'CAD'], ['CHF', 'CNY'], ['SGD', 'KRW'], ['THB', 'USD'],
+];
+
+export const options = {
+  scenarios: {
+    steady: {
+      executor: 'constant-vus',
+      vus: Number(__ENV.VUS || 200),
+      duration: __ENV.DURATION || '60s',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  noConnectionReuse: false,
+};
+
+export default function () {
+  const [from, to] = PAIRS[Math.floor(Math.random() * PAIRS.length)];
+  const res = http.post(`${BASE_URL}${ENDPOINT}`,
+    JSON.stringify({ amount: 100, fromCurrency: from, toCurrency: to }),
+    { headers: { 'Content-Type': 'application/json' }, timeout: __ENV.TIMEOUT || '30s' });
+  check(res, { 'status is 200': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+  const out = { stdout: '' };
+  if (__ENV.SUMMARY) {
+    out[__ENV.SUMMARY] = JSON.stringify({
+      vus: Number(__ENV.VUS || 200),
+      p99: data.metrics.http_req_duration.values['p(99)'],
+      p50: data.metrics.http_req_duration.values['p(50)'],
+      rps: data.metrics.http_reqs.values.rate,
+      errorRate: data.metrics.http_req_failed.values.rate,
+    });
+  }
+  return out;
+}
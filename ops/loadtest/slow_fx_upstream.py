@@ -0,0 +1,53 @@
+"""Slow stand-in for the exchangerate-api upstream used by the thread-mode load test.
+
+Serves GET /<key>/latest/<BASE> in the v6 response format after FX_DELAY_MS milliseconds.
+Point the backend at it with EXTERNAL_CURRENCY_API_URL=http://localhost:8099/
+"""
+import json
+import os
+import random
+import time
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+DELAY_MS = int(os.getenv("FX_DELAY_MS", "800"))
+PORT = int(os.getenv("FX_PORT", "8099"))
+
+USD_RATES = {
+    "USD": 1.0, "EUR": 0.92, "GBP": 0.79, "JPY": 151.2, "VND": 25400.0, "AUD": 1.52,
+    "CAD": 1.36, "CHF": 0.90, "CNY": 7.23, "SGD": 1.35, "KRW": 1370.0, "THB": 36.4,
+}
+
+
+class Handler(BaseHTTPRequestHandler):
+    protocol_version = "HTTP/1.1"
+
+    def do_GET(self):
+        parts = self.path.strip("/").split("/")
+        if len(parts) != 3 or parts[1] != "latest" or parts[2].upper() not in USD_RATES:
+            self.send_error(404)
+            return
+        base = parts[2].upper()
+        time.sleep(DELAY_MS / 1000.0)
+        pivot = USD_RATES[base]
+        rates = {code: round(rate / pivot * random.uniform(0.999, 1.001), 6) for code, rate in USD_RATES.items()}
+        rates[base] = 1.0
+        body = json.dumps({
+            "result": "success",
+            "base_code": base,
+            "time_last_update_unix": int(time.time()),
+            "conversion_rates": rates,
+        }).encode()
+        self.send_response(200)
+        self.send_header("Content-Type", "application/json")
+        self.send_header("Content-Length", str(len(body)))
+        self.end_headers()
+        self.wfile.write(body)
+
+    def log_message(self, fmt, *args):
+        pass
+
+
+if __name__ == "__main__":
+    ThreadingHTTPServer.daemon_threads = True
+    print(f"slow fx upstream on :{PORT}, delay {DELAY_MS} ms")
+    ThreadingHTTPServer(("0.0.0.0", PORT), Handler).serve_forever()